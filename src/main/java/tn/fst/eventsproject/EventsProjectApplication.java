@@ -2,12 +2,16 @@ package tn.fst.eventsproject;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class EventsProjectApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(EventsProjectApplication.class, args);
+        SpringApplication application = new SpringApplication(EventsProjectApplication.class);
+        // startup timeline (bean creation, context phases, cache warm-up) served by /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 
 }
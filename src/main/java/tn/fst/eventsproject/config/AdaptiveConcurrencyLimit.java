@@ -0,0 +1,94 @@
+package tn.fst.eventsproject.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit of one endpoint, adjusted from observed latencies
+ * (gradient algorithm).
+ *
+ * <p>
+ * A long-term average of response times is compared with a short-term one:
+ * while they agree the limit grows by roughly its square root per sample;
+ * when recent requests get slower than usual (queueing somewhere, typically
+ * for a pooled connection) the limit shrinks proportionally to the slow-down.
+ * The limit is only raised when the endpoint actually used most of it.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double LONG_WINDOW = 100;
+    private static final double SHORT_WINDOW = 10;
+    private static final double RTT_TOLERANCE = 1.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRtt;
+    private double shortRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Takes a slot if fewer than {@code share} of the current limit are in
+     * use; lower shares are shed first when the endpoint saturates.
+     *
+     * @return the number of requests in flight when the slot was taken, or
+     *         -1 when the request must be rejected
+     */
+    public int tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        if (rttNanos > 0) {
+            onSample(rttNanos, inFlightAtStart);
+        }
+    }
+
+    private synchronized void onSample(double rtt, int inFlightAtStart) {
+        if (longRtt == 0) {
+            longRtt = rtt;
+            shortRtt = rtt;
+            return;
+        }
+        longRtt += (rtt - longRtt) / LONG_WINDOW;
+        shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+        // after a sustained slow period, let the baseline recover quickly
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        double current = limit;
+        if (inFlightAtStart < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,33 @@
+package tn.fst.eventsproject.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "events.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor interceptor;
+
+    public AdmissionControlConfig(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${events.admission.initial-limit:20}") int initialLimit,
+            @Value("${events.admission.min-limit:4}") int minLimit,
+            @Value("${events.admission.max-limit:200}") int maxLimit,
+            @Value("${events.admission.smoothing:0.2}") double smoothing,
+            @Value("${events.admission.read-share:0.75}") double readShare,
+            @Value("${events.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.interceptor = new AdmissionControlInterceptor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                initialLimit, minLimit, maxLimit, smoothing, readShare, retryAfterSeconds);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/event/**", "/inventory/**");
+    }
+}
@@ -0,0 +1,140 @@
+package tn.fst.eventsproject.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission control in front of the REST controllers: one
+ * {@link AdaptiveConcurrencyLimit} per endpoint (HTTP method and mapping
+ * pattern), plus one shared by all endpoints since they compete for the same
+ * connection pool. Reads may only use {@code readShare} of the shared limit,
+ * so that writes keep some headroom however many read endpoints are busy;
+ * requests over either limit are rejected immediately with 503 and a
+ * {@code Retry-After} header instead of queueing for a database connection.
+ *
+ * <p>
+ * Streaming responses (exports, change streams) give their slot back as soon
+ * as the asynchronous part starts.
+ * </p>
+ */
+@Slf4j
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = AdmissionControlInterceptor.class.getName() + ".permit";
+    private static final String SHARED = "all";
+
+    private final MeterRegistry meterRegistry;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double readShare;
+    private final int retryAfterSeconds;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Endpoint shared;
+
+    public AdmissionControlInterceptor(MeterRegistry meterRegistry, int initialLimit, int minLimit, int maxLimit,
+            double smoothing, double readShare, int retryAfterSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.readShare = readShare;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.shared = register(SHARED);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Endpoint endpoint = endpoint(request);
+        boolean read = HttpMethod.GET.matches(request.getMethod());
+        int inFlight = endpoint.limit.tryAcquire(1.0);
+        if (inFlight < 0) {
+            return reject(endpoint, response);
+        }
+        int sharedInFlight = shared.limit.tryAcquire(read ? readShare : 1.0);
+        if (sharedInFlight < 0) {
+            endpoint.limit.release(0, inFlight);
+            return reject(endpoint, response);
+        }
+        request.setAttribute(PERMIT, new Permit(endpoint, System.nanoTime(), inFlight, sharedInFlight));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        release(request, true);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        // a long-lived stream's duration says nothing about the endpoint's capacity
+        release(request, false);
+    }
+
+    Endpoint endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String key = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        return endpoints.computeIfAbsent(key, this::register);
+    }
+
+    Endpoint shared() {
+        return shared;
+    }
+
+    private boolean reject(Endpoint endpoint, HttpServletResponse response) throws IOException {
+        endpoint.rejected.increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests, retry later");
+        return false;
+    }
+
+    private void release(HttpServletRequest request, boolean sample) {
+        Object attribute = request.getAttribute(PERMIT);
+        if (attribute instanceof Permit permit) {
+            request.removeAttribute(PERMIT);
+            long rtt = sample ? System.nanoTime() - permit.start() : 0;
+            permit.endpoint().limit.release(rtt, permit.inFlight());
+            shared.limit.release(rtt, permit.sharedInFlight());
+        }
+    }
+
+    private Endpoint register(String key) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, smoothing);
+        Gauge.builder("events.admission.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently admitted").tag("endpoint", key).register(meterRegistry);
+        Gauge.builder("events.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit").tag("endpoint", key).register(meterRegistry);
+        Counter rejected = Counter.builder("events.admission.rejected")
+                .description("Requests rejected with 503").tag("endpoint", key).register(meterRegistry);
+        log.info("Admission control enabled for {}", key);
+        return new Endpoint(limit, rejected);
+    }
+
+    record Endpoint(AdaptiveConcurrencyLimit limit, Counter rejected) {
+    }
+
+    private record Permit(Endpoint endpoint, long start, int inFlight, int sharedInFlight) {
+    }
+}
@@ -0,0 +1,51 @@
+package tn.fst.eventsproject.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Registers {@link IdempotencyFilter} on the write endpoints clients retry.
+ * {@code events.idempotency.store=memory} (default) keeps responses per
+ * instance; {@code jdbc} shares them between instances through the
+ * {@code idempotency_key} table.
+ */
+@Configuration
+@ConditionalOnProperty(name = "events.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "events.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(
+            @Value("${events.idempotency.max-entries:10000}") int maxEntries) {
+        return new InMemoryIdempotencyStore(maxEntries);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "events.idempotency.store", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(DataSource dataSource) {
+        return new JdbcIdempotencyStore(dataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${events.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${events.idempotency.lease-seconds:60}") long leaseSeconds,
+            @Value("${events.idempotency.max-body-bytes:16384}") int maxBodyBytes,
+            @Value("${events.idempotency.max-request-bytes:65536}") int maxRequestBytes) {
+        IdempotencyFilter filter = new IdempotencyFilter(store, ttlSeconds * 1000, leaseSeconds * 1000, maxBodyBytes,
+                maxRequestBytes, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/event/addPart", "/event/addEvent", "/event/addEvent/*",
+                "/event/addAffectLog/*");
+        return registration;
+    }
+}
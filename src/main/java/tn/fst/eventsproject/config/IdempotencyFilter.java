@@ -0,0 +1,217 @@
+package tn.fst.eventsproject.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Makes write requests carrying an {@code Idempotency-Key} header safe to
+ * retry. The first request with a key runs normally and its successful
+ * response is kept for {@code ttlMillis}; a retry with the same key and the
+ * same method, URL and body gets that response back (with
+ * {@code Idempotent-Replayed: true}) without reaching the controller.
+ *
+ * <p>
+ * A retry arriving while the first request is still running gets 409 with
+ * {@code Retry-After}; reusing a key for a different request gets 422. Error
+ * responses and bodies over {@code maxBodyBytes} are not kept, so such
+ * requests simply run again. The request body is buffered to fingerprint it,
+ * so a keyed request whose body exceeds {@code maxRequestBytes} gets 413.
+ * Requests without the header are untouched.
+ * </p>
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH");
+
+    private final IdempotencyStore store;
+    private final long ttlMillis;
+    private final long leaseMillis;
+    private final int maxBodyBytes;
+    private final int maxRequestBytes;
+    private final Counter replayed;
+    private final Counter rejected;
+
+    public IdempotencyFilter(IdempotencyStore store, long ttlMillis, long leaseMillis, int maxBodyBytes,
+            int maxRequestBytes, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.ttlMillis = ttlMillis;
+        this.leaseMillis = leaseMillis;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxRequestBytes = maxRequestBytes;
+        this.replayed = Counter.builder("events.idempotency.replayed")
+                .description("Retries answered with a stored response").register(meterRegistry);
+        this.rejected = Counter.builder("events.idempotency.rejected")
+                .description("Retries rejected because the key was in use or reused").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HEADER) == null || !METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getContentLengthLong() > maxRequestBytes ? null
+                : request.getInputStream().readNBytes(maxRequestBytes + 1);
+        if (body == null || body.length > maxRequestBytes) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                    "Requests with an " + HEADER + " are limited to " + maxRequestBytes + " bytes");
+            return;
+        }
+        String fingerprint = fingerprint(request, body);
+        String owner = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        IdempotencyRecord existing = store.reserve(key, fingerprint, owner, now, now + leaseMillis);
+        if (existing != null) {
+            answerRetry(existing, fingerprint, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean kept = false;
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), wrapper);
+            int status = wrapper.getStatus();
+            byte[] content = wrapper.getContentAsByteArray();
+            if (status >= 200 && status < 300 && content.length <= maxBodyBytes) {
+                store.complete(key, owner, new IdempotencyRecord(fingerprint, status, wrapper.getContentType(), content,
+                        System.currentTimeMillis() + ttlMillis));
+                kept = true;
+            }
+        } finally {
+            if (!kept) {
+                store.release(key, owner);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void answerRetry(IdempotencyRecord existing, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (!existing.fingerprint().equals(fingerprint)) {
+            rejected.increment();
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    HEADER + " was already used for a different request");
+        } else if (!existing.completed()) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.CONFLICT.value(),
+                    "A request with this " + HEADER + " is still being processed");
+        } else {
+            replayed.increment();
+            response.setStatus(existing.status());
+            if (existing.contentType() != null) {
+                response.setContentType(existing.contentType());
+            }
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.setContentLength(existing.body().length);
+            response.getOutputStream().write(existing.body());
+        }
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n')
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Request whose body was already read to compute the fingerprint. The
+     * body is fully buffered, so a non-blocking reader is told at once that
+     * the data is available and then that all of it has been read.
+     */
+    static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
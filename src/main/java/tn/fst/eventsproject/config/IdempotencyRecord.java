@@ -0,0 +1,18 @@
+package tn.fst.eventsproject.config;
+
+/**
+ * What an {@link IdempotencyStore} holds for a key: the fingerprint of the
+ * request that used it first and, once that request completed, its response.
+ * {@code expiresAt} (epoch millis) is the end of the processing lease while
+ * {@code status} is 0, then the end of the retention period.
+ */
+public record IdempotencyRecord(String fingerprint, int status, String contentType, byte[] body, long expiresAt) {
+
+    public static IdempotencyRecord inProgress(String fingerprint, long expiresAt) {
+        return new IdempotencyRecord(fingerprint, 0, null, null, expiresAt);
+    }
+
+    public boolean completed() {
+        return status != 0;
+    }
+}
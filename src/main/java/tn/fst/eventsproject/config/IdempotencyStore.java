@@ -0,0 +1,29 @@
+package tn.fst.eventsproject.config;
+
+/**
+ * Storage behind {@link IdempotencyFilter}. Implementations must make
+ * {@link #reserve} atomic: of several concurrent requests with the same key,
+ * exactly one gets {@code null}.
+ *
+ * <p>
+ * The winner passes the same {@code owner} token to {@link #complete} or
+ * {@link #release}; both do nothing once the reservation belongs to another
+ * request, e.g. because the lease expired and a retry took the key over.
+ * </p>
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Takes the key for a new execution unless a live record exists.
+     *
+     * @return {@code null} if the caller now owns the key, otherwise the
+     *         record of the request that owns it (in progress or completed)
+     */
+    IdempotencyRecord reserve(String key, String fingerprint, String owner, long now, long leaseExpiresAt);
+
+    /** Stores the response of the reservation held by {@code owner}. */
+    void complete(String key, String owner, IdempotencyRecord response);
+
+    /** Forgets a reservation whose response is not kept, so the request can be retried. */
+    void release(String key, String owner);
+}
@@ -0,0 +1,79 @@
+package tn.fst.eventsproject.config;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-instance idempotency store keeping at most {@code maxEntries} keys,
+ * oldest first out. Expired entries are dropped from the head of the map as
+ * new keys arrive; reservations still in progress are never evicted, so the
+ * map may briefly exceed its bound while many requests run at once.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> records = new LinkedHashMap<>();
+    private final int maxEntries;
+
+    public InMemoryIdempotencyStore(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public synchronized IdempotencyRecord reserve(String key, String fingerprint, String owner, long now,
+            long leaseExpiresAt) {
+        Entry existing = records.get(key);
+        if (existing != null && existing.record().expiresAt() > now) {
+            return existing.record();
+        }
+        records.remove(key);
+        evict(now);
+        records.put(key, new Entry(owner, IdempotencyRecord.inProgress(fingerprint, leaseExpiresAt)));
+        return null;
+    }
+
+    @Override
+    public synchronized void complete(String key, String owner, IdempotencyRecord response) {
+        if (ownedInProgress(key, owner)) {
+            // re-insert so that the entry moves to the tail with its new expiry
+            records.remove(key);
+            records.put(key, new Entry(owner, response));
+        }
+    }
+
+    @Override
+    public synchronized void release(String key, String owner) {
+        if (ownedInProgress(key, owner)) {
+            records.remove(key);
+        }
+    }
+
+    synchronized int size() {
+        return records.size();
+    }
+
+    private boolean ownedInProgress(String key, String owner) {
+        Entry existing = records.get(key);
+        return existing != null && !existing.record().completed() && existing.owner().equals(owner);
+    }
+
+    /**
+     * Drops expired entries from the head, then completed ones from the
+     * oldest until there is room for one more key, stepping over live
+     * reservations.
+     */
+    private void evict(long now) {
+        Iterator<Entry> it = records.values().iterator();
+        while (it.hasNext()) {
+            IdempotencyRecord record = it.next().record();
+            if (record.expiresAt() <= now || (record.completed() && records.size() >= maxEntries)) {
+                it.remove();
+            } else if (records.size() < maxEntries) {
+                return;
+            }
+        }
+    }
+
+    private record Entry(String owner, IdempotencyRecord record) {
+    }
+}
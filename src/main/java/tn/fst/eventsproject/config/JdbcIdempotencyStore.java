@@ -0,0 +1,94 @@
+package tn.fst.eventsproject.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Idempotency store shared by every instance, in the {@code idempotency_key}
+ * table. The primary key makes reservations atomic: the insert of a
+ * concurrent request with the same key fails and that request reads the
+ * winner's row instead. Each row records the token of the request that
+ * reserved it, and completion and release only touch rows still holding it.
+ */
+@Slf4j
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcIdempotencyStore(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public IdempotencyRecord reserve(String key, String fingerprint, String owner, long now,
+            long leaseExpiresAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource("key", key)
+                .addValue("fingerprint", fingerprint)
+                .addValue("owner", owner)
+                .addValue("now", now)
+                .addValue("expiresAt", leaseExpiresAt);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.update("insert into idempotency_key (idem_key, fingerprint, owner, status, expires_at)"
+                        + " values (:key, :fingerprint, :owner, 0, :expiresAt)", params);
+                return null;
+            } catch (DuplicateKeyException e) {
+                IdempotencyRecord existing = find(key);
+                if (existing != null && existing.expiresAt() > now) {
+                    return existing;
+                }
+                if (attempt == MAX_ATTEMPTS) {
+                    // the row keeps changing hands, treat the key as busy
+                    return IdempotencyRecord.inProgress(fingerprint, leaseExpiresAt);
+                }
+                jdbcTemplate.update("delete from idempotency_key where idem_key = :key and expires_at <= :now",
+                        params);
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, String owner, IdempotencyRecord response) {
+        jdbcTemplate.update("update idempotency_key set status = :status, content_type = :contentType,"
+                + " body = :body, expires_at = :expiresAt where idem_key = :key and owner = :owner and status = 0",
+                new MapSqlParameterSource("key", key)
+                        .addValue("owner", owner)
+                        .addValue("status", response.status())
+                        .addValue("contentType", response.contentType())
+                        .addValue("body", response.body())
+                        .addValue("expiresAt", response.expiresAt()));
+    }
+
+    @Override
+    public void release(String key, String owner) {
+        jdbcTemplate.update("delete from idempotency_key where idem_key = :key and owner = :owner and status = 0",
+                new MapSqlParameterSource("key", key).addValue("owner", owner));
+    }
+
+    @Scheduled(fixedDelayString = "${events.idempotency.cleanup-ms:600000}")
+    public void deleteExpired() {
+        int deleted = jdbcTemplate.update("delete from idempotency_key where expires_at <= :now",
+                new MapSqlParameterSource("now", System.currentTimeMillis()));
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private IdempotencyRecord find(String key) {
+        List<IdempotencyRecord> rows = jdbcTemplate.query(
+                "select fingerprint, status, content_type, body, expires_at from idempotency_key"
+                        + " where idem_key = :key",
+                new MapSqlParameterSource("key", key),
+                (rs, i) -> new IdempotencyRecord(rs.getString(1), rs.getInt(2), rs.getString(3), rs.getBytes(4),
+                        rs.getLong(5)));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+}
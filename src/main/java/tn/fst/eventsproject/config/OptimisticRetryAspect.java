@@ -0,0 +1,87 @@
+package tn.fst.eventsproject.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Re-runs {@link RetryOnConflict} methods that fail because a versioned
+ * entity ({@code Event}, {@code Participant}) was changed concurrently, or
+ * because the database picked their transaction as a deadlock victim, up to
+ * {@code events.locking.max-attempts} times with a short randomized pause.
+ * Ordered ahead of the transaction interceptor so every attempt gets a fresh
+ * transaction; when all attempts fail the caller gets 409.
+ *
+ * <p>
+ * {@code events.locking.conflicts} counts every lost race and
+ * {@code events.locking.retries} the attempts made after one, both tagged
+ * with the method; {@code events.locking.exhausted} counts the calls given up.
+ * </p>
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public OptimisticRetryAspect(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${events.locking.max-attempts:3}") int maxAttempts,
+            @Value("${events.locking.backoff-ms:20}") long backoffMs) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+    }
+
+    @Around("@annotation(tn.fst.eventsproject.config.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint pjp) throws Throwable {
+        String method = pjp.getSignature().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return pjp.proceed();
+            } catch (OptimisticLockingFailureException | CannotAcquireLockException e) {
+                // a deadlock victim surfaces as CannotAcquireLockException,
+                // which replaces the deprecated DeadlockLoserDataAccessException
+                counter("events.locking.conflicts", method).increment();
+                if (attempt >= maxAttempts) {
+                    counter("events.locking.exhausted", method).increment();
+                    log.warn("{} gave up after {} locking conflicts", method, attempt);
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "The resource was modified concurrently, retry the request", e);
+                }
+                log.debug("{} lost a locking race, attempt {} of {}", method, attempt, maxAttempts);
+                counter("events.locking.retries", method).increment();
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) throws InterruptedException {
+        if (backoffMs > 0) {
+            // spread the retries of the requests that collided
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt / 2, backoffMs * attempt + 1));
+        }
+    }
+
+    private Counter counter(String name, String method) {
+        return Counter.builder(name).tag("method", method).register(meterRegistry);
+    }
+}
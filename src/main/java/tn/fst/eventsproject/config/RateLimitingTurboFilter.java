@@ -0,0 +1,81 @@
+package tn.fst.eventsproject.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter letting through at most {@code maxPerSecond} messages
+ * per logger and message pattern each second, for loggers under
+ * {@code loggerPrefix}. Messages are dropped before formatting or queueing,
+ * so a hot path logging on every call costs little once its quota is used.
+ * WARN and ERROR are never sampled.
+ *
+ * <p>
+ * Declared in {@code logback-spring.xml} for the {@code async-logging}
+ * profile.
+ * </p>
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private static final int MAX_PATTERNS = 1024;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong suppressed = new AtomicLong();
+    private String loggerPrefix = "";
+    private int maxPerSecond = 20;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        if (format == null || level == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())
+                || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        String key = logger.getName() + '|' + format;
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= MAX_PATTERNS) {
+                return FilterReply.NEUTRAL;
+            }
+            window = windows.computeIfAbsent(key, k -> new Window());
+        }
+        if (window.tryAcquire(System.currentTimeMillis() / 1000, maxPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    private static final class Window {
+        private long second;
+        private int count;
+
+        synchronized boolean tryAcquire(long now, int max) {
+            if (now != second) {
+                second = now;
+                count = 0;
+            }
+            return ++count <= max;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package tn.fst.eventsproject.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that may be re-run when it loses an optimistic
+ * locking race or a deadlock (see {@link OptimisticRetryAspect}). The method must be safe
+ * to run again: it re-reads what it modifies and all its writes happen in
+ * the transaction that failed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
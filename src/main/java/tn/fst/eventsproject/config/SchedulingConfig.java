@@ -0,0 +1,15 @@
+package tn.fst.eventsproject.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs (cost computation, event archiving).
+ * Switched off with {@code events.scheduling.enabled=false}, as in tests.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "events.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,21 @@
+package tn.fst.eventsproject.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * With {@code spring.main.lazy-initialization} (fast-start profile), keeps
+     * the application's controllers, services and listeners eager so that
+     * the first requests do not pay for their creation, nor for the
+     * repositories and connection pool they depend on.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerApplicationBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && beanType.getName().startsWith("tn.fst.eventsproject.");
+    }
+}
@@ -0,0 +1,26 @@
+package tn.fst.eventsproject.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import tn.fst.eventsproject.dto.CostBreakdown;
+import tn.fst.eventsproject.services.IEventAnalyticsService;
+
+import java.time.LocalDate;
+
+@RequiredArgsConstructor
+@RequestMapping("event/analytics")
+@RestController
+public class EventAnalyticsController {
+    private final IEventAnalyticsService eventAnalyticsService;
+
+    @GetMapping("/cost")
+    @Operation(summary = "Reserved logistics cost by participant role and month", description = "Totals for the events starting between the optional from/to dates (yyyy-MM-dd), per tache of their participants and per month. Served from an in-memory snapshot refreshed periodically, see snapshotTakenAt.")
+    public CostBreakdown getCostBreakdown(@RequestParam(value = "from", required = false) LocalDate from,
+            @RequestParam(value = "to", required = false) LocalDate to) {
+        return eventAnalyticsService.getCostBreakdown(from, to);
+    }
+}
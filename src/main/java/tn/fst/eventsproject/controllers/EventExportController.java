@@ -0,0 +1,38 @@
+package tn.fst.eventsproject.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tn.fst.eventsproject.services.ExportFormat;
+import tn.fst.eventsproject.services.IEventExportService;
+
+import java.time.LocalDate;
+
+@RequiredArgsConstructor
+@RequestMapping("event")
+@RestController
+public class EventExportController {
+    private final IEventExportService eventExportService;
+
+    @GetMapping("/export")
+    @Operation(summary = "Export the event catalog", description = "Stream every event with its reserved logistics and participant count as csv or ndjson. Optional from/to filters apply to dateDebut (yyyy-MM-dd).")
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "from", required = false) LocalDate dateDebut,
+            @RequestParam(value = "to", required = false) LocalDate dateFin) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> eventExportService.exportEvents(exportFormat, dateDebut, dateFin, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"events." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,42 @@
+package tn.fst.eventsproject.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import tn.fst.eventsproject.dto.PurgeProgress;
+import tn.fst.eventsproject.dto.PurgeRequest;
+import tn.fst.eventsproject.services.IEventPurgeService;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@RequestMapping("admin/purges")
+@RestController
+public class EventPurgeController {
+    private final IEventPurgeService eventPurgeService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Purge events", description = "Delete events given either as a list of ids or as a dateDebut range {\"from\",\"to\"}, with their participant and logistics links, in throttled chunks in the background. Returns 409 while another purge is running.")
+    public PurgeProgress startPurge(@RequestBody PurgeRequest request) {
+        return eventPurgeService.startPurge(request);
+    }
+
+    @GetMapping
+    public List<PurgeProgress> getPurges() {
+        return eventPurgeService.getPurges();
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Purge progress", description = "Events matched when the purge started, events deleted so far and status.")
+    public PurgeProgress getProgress(@PathVariable("id") String id) {
+        return eventPurgeService.getProgress(id);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel a purge", description = "Stops the purge after its current chunk; events already deleted stay deleted.")
+    public PurgeProgress cancelPurge(@PathVariable("id") String id) {
+        return eventPurgeService.cancelPurge(id);
+    }
+}
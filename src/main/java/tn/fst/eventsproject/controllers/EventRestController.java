@@ -1,24 +1,35 @@
 package tn.fst.eventsproject.controllers;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
+import tn.fst.eventsproject.dto.EventCost;
+import tn.fst.eventsproject.dto.EventFilter;
+import tn.fst.eventsproject.dto.EventSummary;
+import tn.fst.eventsproject.dto.KeysetPage;
+import tn.fst.eventsproject.dto.ScheduledEvent;
 import tn.fst.eventsproject.entities.Event;
 import tn.fst.eventsproject.entities.Logistics;
 import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
+import tn.fst.eventsproject.services.EventChangeBroadcaster;
 import tn.fst.eventsproject.services.IEventServices;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RequiredArgsConstructor
 @RequestMapping("event")
 @RestController
 public class EventRestController {
     private final IEventServices eventServices;
+    private final EventChangeBroadcaster eventChangeBroadcaster;
 
     @PostMapping("/addPart")
     @Operation(summary = "Add a participant", description = "Create a new participant. Example payload shown in the request body.")
@@ -28,10 +39,11 @@ public class EventRestController {
     }
 
     @PostMapping("/addEvent/{id}")
-    @Operation(summary = "Add an event and attach to a participant", description = "Create an event and link it to an existing participant by id.")
+    @Operation(summary = "Add an event and attach to a participant", description = "Create an event and link it to an existing participant by id. With checkConflicts=true, returns 409 if the participant already has an event overlapping the new one.")
     @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "application/json", schema = @Schema(implementation = Event.class), examples = @ExampleObject(value = "{\"description\":\"Workshop\",\"dateDebut\":\"2025-12-15\",\"dateFin\":\"2025-12-16\",\"cout\":500.0}")))
-    public Event addEventPart(@RequestBody Event event, @PathVariable("id") int idPart) {
-        return eventServices.addAffectEvenParticipant(event, idPart);
+    public Event addEventPart(@RequestBody Event event, @PathVariable("id") int idPart,
+            @RequestParam(value = "checkConflicts", defaultValue = "false") boolean checkConflicts) {
+        return eventServices.addAffectEvenParticipant(event, idPart, checkConflicts);
     }
 
     @PostMapping("/addEvent")
@@ -54,4 +66,56 @@ public class EventRestController {
             @PathVariable("d2") LocalDate dateFin) {
         return eventServices.getLogisticsDates(dateDebut, dateFin);
     }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to event changes", description = "Server-sent events for created events, linked participants, attached logistics and recomputed costs, optionally restricted to one event or to events whose dateDebut falls in [from, to]. A 'dropped' event reports changes lost because the client fell behind.")
+    public SseEmitter subscribeChanges(@RequestParam(value = "idEvent", required = false) Integer idEvent,
+            @RequestParam(value = "from", required = false) LocalDate from,
+            @RequestParam(value = "to", required = false) LocalDate to) {
+        return eventChangeBroadcaster.subscribe(idEvent, from, to);
+    }
+
+    @GetMapping("/events")
+    @Operation(summary = "List events", description = "Events with a dateDebut, ordered by dateDebut then idEvent, optionally filtered by dateDebut in [from, to] and cout in [minCout, maxCout]. 'fields' restricts the returned properties (any of idEvent, description, dateDebut, dateFin, cout; all by default). Pass the returned nextCursor as 'after' to fetch the next page (size 1-100).")
+    public KeysetPage<Map<String, Object>> listEvents(@RequestParam(value = "from", required = false) LocalDate from,
+            @RequestParam(value = "to", required = false) LocalDate to,
+            @RequestParam(value = "minCout", required = false) Float minCout,
+            @RequestParam(value = "maxCout", required = false) Float maxCout,
+            @RequestParam(value = "fields", required = false) List<String> fields,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return eventServices.listEvents(new EventFilter(from, to, minCout, maxCout), fields, after,
+                Math.max(1, Math.min(size, 100)));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search events by description", description = "Prefix and word search over event descriptions (case and accent insensitive), served from an in-memory index. Returns at most 'limit' results (1-100).")
+    public List<EventSummary> searchEvents(@RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return eventServices.searchEvents(query, Math.max(1, Math.min(limit, 100)));
+    }
+
+    @GetMapping("/top-cost")
+    @Operation(summary = "Most expensive upcoming events", description = "Events not started yet with the highest cout, most expensive first, served from memory. Returns at most 'limit' events (1-100).")
+    public List<EventCost> getTopCostEvents(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return eventServices.getTopCostEvents(Math.max(1, Math.min(limit, 100)));
+    }
+
+    @GetMapping("/participants")
+    @Operation(summary = "Search participants", description = "Filter participants by any combination of nom, prenom and tache, ordered by id. Pass the returned nextCursor as 'after' to fetch the next page (size 1-100).")
+    public KeysetPage<Participant> searchParticipants(@RequestParam(value = "nom", required = false) String nom,
+            @RequestParam(value = "prenom", required = false) String prenom,
+            @RequestParam(value = "tache", required = false) Tache tache,
+            @RequestParam(value = "after", required = false) Integer afterId,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return eventServices.searchParticipants(nom, prenom, tache, afterId, Math.max(1, Math.min(size, 100)));
+    }
+
+    @GetMapping("/participants/{id}/schedule")
+    @Operation(summary = "Participant schedule", description = "Events of a participant overlapping the optional [from, to] range (yyyy-MM-dd), ordered by dateDebut.")
+    public List<ScheduledEvent> getParticipantSchedule(@PathVariable("id") int idPart,
+            @RequestParam(value = "from", required = false) LocalDate from,
+            @RequestParam(value = "to", required = false) LocalDate to) {
+        return eventServices.getParticipantSchedule(idPart, from, to);
+    }
 }
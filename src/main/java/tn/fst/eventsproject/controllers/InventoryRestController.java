@@ -0,0 +1,35 @@
+package tn.fst.eventsproject.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tn.fst.eventsproject.dto.InventoryStock;
+import tn.fst.eventsproject.services.IInventoryService;
+
+@RequiredArgsConstructor
+@RequestMapping("inventory")
+@RestController
+public class InventoryRestController {
+    private final IInventoryService inventoryService;
+
+    @PostMapping("/{description}")
+    @Operation(summary = "Add stock for a logistics item", description = "Create the shared stock of a logistics item, or add to it if it already exists. Logistics attached with reserve=true then draw from this stock.")
+    public InventoryStock addStock(@PathVariable("description") String description,
+            @RequestParam("quantite") int quantite) {
+        return inventoryService.addStock(description, quantite);
+    }
+
+    @GetMapping("/{description}")
+    public InventoryStock getStock(@PathVariable("description") String description) {
+        return inventoryService.getStock(description);
+    }
+
+    @PostMapping("/{description}/reserve")
+    @Operation(summary = "Reserve stock", description = "Atomically take units from the shared stock; returns 409 when not enough is available.")
+    public ResponseEntity<Void> reserve(@PathVariable("description") String description,
+            @RequestParam("quantite") int quantite) {
+        inventoryService.reserve(description, quantite);
+        return ResponseEntity.noContent().build();
+    }
+}
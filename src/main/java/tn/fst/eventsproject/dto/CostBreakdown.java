@@ -0,0 +1,17 @@
+package tn.fst.eventsproject.dto;
+
+import tn.fst.eventsproject.entities.Tache;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reserved logistics cost of the events starting in a period, per
+ * participant role and per month. An event counts once for every role among
+ * its participants, so the per-role figures may add up to more than
+ * {@code cout}.
+ */
+public record CostBreakdown(Instant snapshotTakenAt, long events, double cout, Map<Tache, RoleCost> byTache,
+        List<MonthlyCost> byMonth) {
+}
@@ -0,0 +1,35 @@
+package tn.fst.eventsproject.dto;
+
+import tn.fst.eventsproject.entities.Event;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Notification of a change made through the service layer, published as a
+ * Spring application event and pushed to change-stream subscribers.
+ */
+public record EventChange(EventChangeType type, int idEvent, String description, LocalDate dateDebut,
+        LocalDate dateFin, float cout, Integer idParticipant, Integer idLog, Instant at) {
+
+    public static EventChange of(EventChangeType type, Event event, Integer idParticipant, Integer idLog) {
+        return new EventChange(type, event.getIdEvent(), event.getDescription(), event.getDateDebut(),
+                event.getDateFin(), event.getCout(), idParticipant, idLog, Instant.now());
+    }
+
+    public static EventChange participantAdded(int idParticipant) {
+        return new EventChange(EventChangeType.PARTICIPANT_ADDED, 0, null, null, null, 0f, idParticipant, null,
+                Instant.now());
+    }
+
+    /**
+     * Changes sharing a key supersede each other in a subscriber buffer: only
+     * the latest cost of an event matters, every link is kept.
+     */
+    public String coalescingKey() {
+        if (type == EventChangeType.COST_UPDATED) {
+            return type + ":" + idEvent;
+        }
+        return type + ":" + idEvent + ":" + idParticipant + ":" + idLog;
+    }
+}
@@ -0,0 +1,6 @@
+package tn.fst.eventsproject.dto;
+
+// the ordinal is written to the change journal: only append new types
+public enum EventChangeType {
+    EVENT_CREATED, PARTICIPANT_LINKED, LOGISTICS_ADDED, COST_UPDATED, PARTICIPANT_ADDED, EVENT_DELETED
+}
@@ -0,0 +1,6 @@
+package tn.fst.eventsproject.dto;
+
+import java.time.LocalDate;
+
+public record EventCost(int idEvent, String description, LocalDate dateDebut, LocalDate dateFin, float cout) {
+}
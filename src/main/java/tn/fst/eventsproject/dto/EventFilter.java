@@ -0,0 +1,10 @@
+package tn.fst.eventsproject.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria of the event listing: dateDebut in [from, to] and cout in
+ * [minCout, maxCout]. Null bounds are not applied.
+ */
+public record EventFilter(LocalDate from, LocalDate to, Float minCout, Float maxCout) {
+}
@@ -0,0 +1,4 @@
+package tn.fst.eventsproject.dto;
+
+public record EventSummary(int idEvent, String description) {
+}
@@ -0,0 +1,4 @@
+package tn.fst.eventsproject.dto;
+
+public record InventoryStock(String description, long disponible, int slots) {
+}
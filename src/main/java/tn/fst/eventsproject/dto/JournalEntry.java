@@ -0,0 +1,7 @@
+package tn.fst.eventsproject.dto;
+
+/**
+ * A change read back from the change journal, with its position in it.
+ */
+public record JournalEntry(long sequence, EventChange change) {
+}
@@ -0,0 +1,11 @@
+package tn.fst.eventsproject.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the
+ * last page, otherwise it is passed back as the {@code after} parameter to
+ * fetch the following page.
+ */
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+}
@@ -0,0 +1,9 @@
+package tn.fst.eventsproject.dto;
+
+import tn.fst.eventsproject.entities.Tache;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+public record MonthlyCost(YearMonth month, long events, double cout, Map<Tache, Double> coutByTache) {
+}
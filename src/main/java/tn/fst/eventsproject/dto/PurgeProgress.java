@@ -0,0 +1,11 @@
+package tn.fst.eventsproject.dto;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of a purge: {@code matched} events were selected when it started,
+ * {@code deleted} are gone so far, in {@code chunks} transactions.
+ */
+public record PurgeProgress(String id, PurgeStatus status, long matched, long deleted, int chunks,
+        Instant startedAt, Instant finishedAt, String error) {
+}
@@ -0,0 +1,11 @@
+package tn.fst.eventsproject.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Events to purge: either explicit ids, or every event whose dateDebut falls
+ * in [from, to].
+ */
+public record PurgeRequest(List<Integer> ids, LocalDate from, LocalDate to) {
+}
@@ -0,0 +1,5 @@
+package tn.fst.eventsproject.dto;
+
+public enum PurgeStatus {
+    RUNNING, COMPLETED, CANCELLED, FAILED
+}
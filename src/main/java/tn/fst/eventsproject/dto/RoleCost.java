@@ -0,0 +1,7 @@
+package tn.fst.eventsproject.dto;
+
+/**
+ * Reserved logistics cost of the events a role takes part in.
+ */
+public record RoleCost(long events, double cout) {
+}
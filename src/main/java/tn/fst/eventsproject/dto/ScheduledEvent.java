@@ -0,0 +1,6 @@
+package tn.fst.eventsproject.dto;
+
+import java.time.LocalDate;
+
+public record ScheduledEvent(int idEvent, String description, LocalDate dateDebut, LocalDate dateFin) {
+}
@@ -0,0 +1,41 @@
+package tn.fst.eventsproject.entities;
+
+import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Completed event moved out of the {@code event} table by the archiving job.
+ * It keeps its original id, its logistics links
+ * ({@code event_logistics_archive}) and the ids of its participants
+ * ({@code participant_events_archive}), and is never modified afterwards.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "event_archive", indexes = @Index(name = "idx_event_archive_date_debut", columnList = "date_debut, id_event"))
+public class ArchivedEvent implements Serializable {
+    @Id
+    int idEvent;
+    String description;
+    LocalDate dateDebut;
+    LocalDate dateFin;
+    float cout;
+    @ManyToMany(fetch = FetchType.EAGER)
+    @JoinTable(name = "event_logistics_archive", joinColumns = @JoinColumn(name = "event_id_event"),
+            inverseJoinColumns = @JoinColumn(name = "logistics_id_log"))
+    Set<Logistics> logistics;
+    @ElementCollection
+    @CollectionTable(name = "participant_events_archive", joinColumns = @JoinColumn(name = "events_id_event"))
+    @Column(name = "participants_id_part")
+    @JsonIgnore
+    Set<Integer> participantIds;
+
+}
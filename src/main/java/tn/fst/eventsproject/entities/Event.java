@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.DynamicUpdate;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Set;
@@ -14,6 +15,14 @@ import java.util.Set;
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
+// only changed columns are written, so a writer never puts back a stale value
+// of a column it did not touch (cout is refreshed separately by calculCout)
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_event_description", columnList = "description"),
+        @Index(name = "idx_event_date_fin", columnList = "date_fin, id_event"),
+        @Index(name = "idx_event_date_debut", columnList = "date_debut, id_event"),
+        @Index(name = "idx_event_cout", columnList = "cout, date_debut") })
 public class Event implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,5 +36,12 @@ public class Event implements Serializable {
     Set<Participant> participants;
     @OneToMany(fetch = FetchType.EAGER)
     Set<Logistics> logistics;
+    @Version
+    int version;
+
+    public Event(int idEvent, String description, LocalDate dateDebut, LocalDate dateFin, float cout,
+            Set<Participant> participants, Set<Logistics> logistics) {
+        this(idEvent, description, dateDebut, dateFin, cout, participants, logistics, 0);
+    }
 
 }
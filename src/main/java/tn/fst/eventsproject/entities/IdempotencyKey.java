@@ -0,0 +1,36 @@
+package tn.fst.eventsproject.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import java.io.Serializable;
+
+/**
+ * Response stored for an {@code Idempotency-Key} when the {@code jdbc}
+ * idempotency store is used, so that retries reaching another instance are
+ * answered too. {@code status} is 0 while the first request is still being
+ * processed by the request whose token is in {@code owner}. Rows are written and read with plain JDBC by
+ * {@link tn.fst.eventsproject.config.JdbcIdempotencyStore}; the entity only
+ * declares the table.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "idempotency_key", indexes = @Index(name = "idx_idempotency_key_expires_at", columnList = "expires_at"))
+public class IdempotencyKey implements Serializable {
+    @Id
+    String idemKey;
+    @Column(nullable = false, length = 64)
+    String fingerprint;
+    @Column(length = 36)
+    String owner;
+    int status;
+    String contentType;
+    @Lob
+    byte[] body;
+    long expiresAt;
+
+}
@@ -0,0 +1,30 @@
+package tn.fst.eventsproject.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+/**
+ * One stripe of the shared stock of a logistics item (identified by its
+ * description). The stock of an item is spread over several slots so that
+ * concurrent reservations update different rows instead of queueing on one.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_inventory_slot_description_slot",
+        columnNames = {"description", "slot"}))
+public class InventorySlot implements Serializable {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    int idSlot;
+    String description;
+    int slot;
+    int disponible;
+
+}
@@ -14,6 +14,18 @@ import java.util.Set;
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
+// One composite index per filter combination of the participant search: the
+// equality columns followed directly by id_part, so that 'id_part > ? order by
+// id_part' stays an index range scan without a filesort.
+@Table(indexes = {
+        @Index(name = "idx_participant_nom_prenom_tache", columnList = "nom, prenom, tache, id_part"),
+        @Index(name = "idx_participant_nom_prenom", columnList = "nom, prenom, id_part"),
+        @Index(name = "idx_participant_nom_tache", columnList = "nom, tache, id_part"),
+        @Index(name = "idx_participant_nom", columnList = "nom, id_part"),
+        @Index(name = "idx_participant_prenom_tache", columnList = "prenom, tache, id_part"),
+        @Index(name = "idx_participant_prenom", columnList = "prenom, id_part"),
+        @Index(name = "idx_participant_tache", columnList = "tache, id_part")
+})
 public class Participant implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,5 +37,11 @@ public class Participant implements Serializable {
     @ManyToMany
     @JsonIgnore
     Set<Event> events;
+    @Version
+    int version;
+
+    public Participant(int idPart, String nom, String prenom, Tache tache, Set<Event> events) {
+        this(idPart, nom, prenom, tache, events, 0);
+    }
 
 }
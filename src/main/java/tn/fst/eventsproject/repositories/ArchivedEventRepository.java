@@ -0,0 +1,17 @@
+package tn.fst.eventsproject.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ArchivedEventRepository extends JpaRepository<ArchivedEvent, Integer> {
+
+    List<ArchivedEvent> findByDateDebutBetween(LocalDate date1, LocalDate date2);
+
+    @Query("select max(a.dateDebut) from ArchivedEvent a")
+    LocalDate findLatestDateDebut();
+
+}
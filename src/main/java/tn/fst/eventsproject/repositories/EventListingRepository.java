@@ -0,0 +1,25 @@
+package tn.fst.eventsproject.repositories;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.domain.Specification;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+import tn.fst.eventsproject.entities.Event;
+
+import java.util.List;
+
+public interface EventListingRepository {
+
+    /**
+     * Selects only the given scalar properties (plus dateDebut and idEvent,
+     * the listing order) of the first {@code limit} matching events, as tuples
+     * aliased by property name. No entity is loaded, so the logistics
+     * collection is never fetched.
+     */
+    List<Tuple> findFields(Specification<Event> spec, List<String> fields, int limit);
+
+    /**
+     * Same as {@link #findFields} on the events moved to the archive.
+     */
+    List<Tuple> findArchivedFields(Specification<ArchivedEvent> spec, List<String> fields, int limit);
+
+}
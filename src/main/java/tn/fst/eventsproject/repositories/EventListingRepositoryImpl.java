@@ -0,0 +1,49 @@
+package tn.fst.eventsproject.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+import tn.fst.eventsproject.entities.Event;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+class EventListingRepositoryImpl implements EventListingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findFields(Specification<Event> spec, List<String> fields, int limit) {
+        return select(Event.class, spec, fields, limit);
+    }
+
+    @Override
+    public List<Tuple> findArchivedFields(Specification<ArchivedEvent> spec, List<String> fields, int limit) {
+        return select(ArchivedEvent.class, spec, fields, limit);
+    }
+
+    private <T> List<Tuple> select(Class<T> entity, Specification<T> spec, List<String> fields, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entity);
+
+        Set<String> selected = new LinkedHashSet<>(fields);
+        selected.add("dateDebut");
+        selected.add("idEvent");
+        List<Selection<?>> selections = selected.stream()
+                .<Selection<?>>map(field -> root.get(field).alias(field)).toList();
+
+        query.multiselect(selections)
+                .where(spec.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("dateDebut")), cb.asc(root.get("idEvent")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
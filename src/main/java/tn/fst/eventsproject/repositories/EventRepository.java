@@ -1,13 +1,22 @@
 package tn.fst.eventsproject.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import tn.fst.eventsproject.dto.EventCost;
+import tn.fst.eventsproject.dto.EventSummary;
+import tn.fst.eventsproject.dto.ScheduledEvent;
 import tn.fst.eventsproject.entities.Event;
 import tn.fst.eventsproject.entities.Tache;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface EventRepository extends JpaRepository<Event, Integer> {
+public interface EventRepository extends JpaRepository<Event, Integer>, EventListingRepository {
 
     Event findFirstByDescription(String description);
 
@@ -16,4 +25,33 @@ public interface EventRepository extends JpaRepository<Event, Integer> {
     List<Event> findByParticipants_NomAndParticipants_PrenomAndParticipants_Tache(String nom, String prenom,
             Tache tache);
 
-}
\ No newline at end of file
+    @Query("select new tn.fst.eventsproject.dto.EventSummary(e.idEvent, e.description) from Event e")
+    Stream<EventSummary> streamAllSummaries();
+
+    /**
+     * The participant's events, archived ones included: an overlapping
+     * booking must be refused against an event that has moved to the archive
+     * as well.
+     */
+    @Query("select new tn.fst.eventsproject.dto.ScheduledEvent(e.idEvent, e.description, e.dateDebut, e.dateFin)"
+            + " from Participant p join p.events e where p.idPart = :idPart"
+            + " union all"
+            + " select new tn.fst.eventsproject.dto.ScheduledEvent(a.idEvent, a.description, a.dateDebut, a.dateFin)"
+            + " from ArchivedEvent a join a.participantIds archived where archived = :idPart")
+    List<ScheduledEvent> findScheduleByParticipant(@Param("idPart") int idPart);
+
+    @Query("select new tn.fst.eventsproject.dto.EventCost(e.idEvent, e.description, e.dateDebut, e.dateFin, e.cout)"
+            + " from Event e where e.dateDebut >= :from order by e.cout desc, e.idEvent")
+    List<EventCost> findTopByCost(@Param("from") LocalDate from, Pageable pageable);
+
+    /**
+     * Writes only the cout column, leaving the rest of the row and its
+     * version alone: cout is derived from the logistics, so refreshing it
+     * must not conflict with the writers of the event.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Event e set e.cout = :cout where e.idEvent = :idEvent")
+    int updateCout(@Param("idEvent") int idEvent, @Param("cout") float cout);
+
+}
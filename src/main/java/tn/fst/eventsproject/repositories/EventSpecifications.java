@@ -0,0 +1,48 @@
+package tn.fst.eventsproject.repositories;
+
+import org.springframework.data.jpa.domain.Specification;
+import tn.fst.eventsproject.dto.EventFilter;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+import tn.fst.eventsproject.entities.Event;
+
+import java.time.LocalDate;
+
+/**
+ * Building blocks for event listings, walked in (dateDebut, idEvent) order
+ * along the {@code idx_event_date_debut} index declared on {@link Event}.
+ * They only use properties that {@link ArchivedEvent} shares with
+ * {@link Event}, so the same criteria apply to the archive.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    /**
+     * Events matching {@code filter} that come after the given position in
+     * (dateDebut, idEvent) order; events without a dateDebut are never listed.
+     */
+    public static <T> Specification<T> matching(EventFilter filter, LocalDate afterDateDebut, Integer afterId) {
+        Specification<T> spec = (root, query, cb) -> cb.isNotNull(root.get("dateDebut"));
+        if (filter.from() != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateDebut"), filter.from()));
+        }
+        if (filter.to() != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("dateDebut"), filter.to()));
+        }
+        if (filter.minCout() != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("cout"), filter.minCout()));
+        }
+        if (filter.maxCout() != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("cout"), filter.maxCout()));
+        }
+        if (afterDateDebut != null && afterId != null) {
+            // the redundant lower bound on dateDebut lets the database seek the index
+            spec = spec.and((root, query, cb) -> cb.and(
+                    cb.greaterThanOrEqualTo(root.get("dateDebut"), afterDateDebut),
+                    cb.or(cb.greaterThan(root.get("dateDebut"), afterDateDebut),
+                            cb.greaterThan(root.get("idEvent"), afterId))));
+        }
+        return spec;
+    }
+}
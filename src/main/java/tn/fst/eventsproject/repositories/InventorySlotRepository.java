@@ -0,0 +1,35 @@
+package tn.fst.eventsproject.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tn.fst.eventsproject.entities.InventorySlot;
+
+import java.util.List;
+
+public interface InventorySlotRepository extends JpaRepository<InventorySlot, Integer> {
+
+    List<InventorySlot> findByDescriptionOrderBySlot(String description);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from InventorySlot s where s.description = :description order by s.idSlot")
+    List<InventorySlot> lockByDescription(@Param("description") String description);
+
+    /**
+     * Decrements a slot only if it still holds enough stock; returns 0 when
+     * the slot is short, so two concurrent callers can never both succeed on
+     * the last units.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update InventorySlot s set s.disponible = s.disponible - :quantite"
+            + " where s.idSlot = :idSlot and s.disponible >= :quantite")
+    int tryTake(@Param("idSlot") int idSlot, @Param("quantite") int quantite);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update InventorySlot s set s.disponible = s.disponible + :quantite where s.idSlot = :idSlot")
+    int give(@Param("idSlot") int idSlot, @Param("quantite") int quantite);
+
+}
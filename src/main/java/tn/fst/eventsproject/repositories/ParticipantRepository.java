@@ -1,7 +1,21 @@
 package tn.fst.eventsproject.repositories;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import tn.fst.eventsproject.entities.Participant;
 
-public interface ParticipantRepository extends JpaRepository<Participant, Integer> {
+import java.util.Optional;
+
+public interface ParticipantRepository extends JpaRepository<Participant, Integer>,
+        JpaSpecificationExecutor<Participant> {
+
+    /**
+     * Loads the participant and locks its row until the calling transaction
+     * ends, so that concurrent links of the same participant run one after
+     * the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Participant> findLockedByIdPart(int idPart);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package tn.fst.eventsproject.repositories;
+
+import org.springframework.data.jpa.domain.Specification;
+import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
+
+/**
+ * Building blocks for participant searches. Null criteria are left out of
+ * the generated where clause, so each combination of filters is exactly the
+ * equality prefix of one of the composite indexes declared on
+ * {@link Participant}, followed by id_part for the keyset ordering.
+ */
+public final class ParticipantSpecifications {
+
+    private ParticipantSpecifications() {
+    }
+
+    public static Specification<Participant> matching(String nom, String prenom, Tache tache, Integer afterId) {
+        Specification<Participant> spec = Specification.where(null);
+        if (nom != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("nom"), nom));
+        }
+        if (prenom != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("prenom"), prenom));
+        }
+        if (tache != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("tache"), tache));
+        }
+        if (afterId != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThan(root.get("idPart"), afterId));
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,87 @@
+package tn.fst.eventsproject.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Loads the in-memory indexes once the application is ready: first from the
+ * warm-start snapshot when there is a current one, then from the database
+ * for whatever it did not cover. Each load is recorded as a step of the
+ * startup timeline ({@code /actuator/startup}).
+ *
+ * <p>
+ * With {@code events.warmup.deferred=true} (fast-start profile) the loads run
+ * in the background after the instance reports ready; until then description
+ * lookups fall back to the database and the top-cost view and cost analytics
+ * load on first use.
+ * </p>
+ */
+@Slf4j
+@Component
+public class CacheWarmup {
+
+    private final EventDescriptionIndex eventDescriptionIndex;
+    private final TopCostEventIndex topCostEventIndex;
+    private final IEventAnalyticsService eventAnalyticsService;
+    private final ObjectProvider<WarmStartSnapshot> warmStartSnapshot;
+    private final ApplicationStartup applicationStartup;
+    private final boolean deferred;
+
+    public CacheWarmup(EventDescriptionIndex eventDescriptionIndex, TopCostEventIndex topCostEventIndex,
+            IEventAnalyticsService eventAnalyticsService, ObjectProvider<WarmStartSnapshot> warmStartSnapshot,
+            ApplicationStartup applicationStartup, @Value("${events.warmup.deferred:false}") boolean deferred) {
+        this.eventDescriptionIndex = eventDescriptionIndex;
+        this.topCostEventIndex = topCostEventIndex;
+        this.eventAnalyticsService = eventAnalyticsService;
+        this.warmStartSnapshot = warmStartSnapshot;
+        this.applicationStartup = applicationStartup;
+        this.deferred = deferred;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!deferred) {
+            run();
+            return;
+        }
+        Thread.ofVirtual().name("cache-warmup").start(() -> {
+            try {
+                run();
+            } catch (RuntimeException e) {
+                log.error("Deferred cache warm-up failed, indexes will fill as data is written", e);
+            }
+        });
+    }
+
+    private void run() {
+        Set<String> restored = new HashSet<>();
+        warmStartSnapshot.ifAvailable(snapshot -> step("events.warmup.snapshot",
+                () -> restored.addAll(snapshot.restore())));
+        if (!restored.contains(eventDescriptionIndex.warmStartName())) {
+            step("events.warmup.description-index", eventDescriptionIndex::rebuild);
+        }
+        step("events.warmup.top-cost", topCostEventIndex::rebuild);
+        if (!(eventAnalyticsService instanceof WarmStartCache cache && restored.contains(cache.warmStartName()))) {
+            step("events.warmup.cost-analytics", eventAnalyticsService::refresh);
+        }
+    }
+
+    private void step(String name, Runnable load) {
+        StartupStep step = applicationStartup.start(name);
+        step.tag("deferred", String.valueOf(deferred));
+        try {
+            load.run();
+        } finally {
+            step.end();
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package tn.fst.eventsproject.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.JournalEntry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only journal of every committed change published by the
+ * service layer ({@link EventChange}), for in-process consumers that need to
+ * catch up or replay after a restart without querying MySQL.
+ *
+ * <p>
+ * Records (see {@link JournalCodec}) are appended to memory-mapped segment
+ * files of {@code events.journal.segment-size} bytes, named after the
+ * sequence number of their first record. Appending is a copy into the
+ * mapping; the mapping is forced to disk every
+ * {@code events.journal.flush-interval-ms}, before rolling to a new segment
+ * and on shutdown, so a crash loses at most one flush interval. The oldest
+ * segments are deleted beyond {@code events.journal.retained-segments}. On
+ * startup the last segment is scanned up to its last valid record and
+ * appending resumes from there.
+ * </p>
+ *
+ * <p>
+ * Consumers either pull with a {@link ChangeJournalReader} or
+ * {@link #subscribe} to have entries pushed from a background thread, both
+ * starting from any retained sequence number.
+ * </p>
+ *
+ * <p>
+ * Changes are journaled after their transaction has committed, so a change
+ * that cannot be appended is logged and counted in
+ * {@code events.journal.failures} rather than failing the request.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "events.journal.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeJournal {
+
+    private static final String SUFFIX = ".journal";
+    private static final int SUBSCRIPTION_BATCH = 256;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int retainedSegments;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService flusher;
+    private final Object appended = new Object();
+    private final Counter failures;
+    private ByteBuffer scratch = ByteBuffer.allocate(JournalCodec.maxRecordSize(1024));
+    private Segment active;
+    private boolean dirty;
+    private volatile long lastSequence;
+
+    @Autowired
+    public ChangeJournal(@Value("${events.journal.dir}") Path directory,
+            @Value("${events.journal.segment-size:16777216}") int segmentSize,
+            @Value("${events.journal.retained-segments:8}") int retainedSegments,
+            @Value("${events.journal.flush-interval-ms:200}") long flushIntervalMs,
+            ObjectProvider<MeterRegistry> meterRegistry) throws IOException {
+        this(directory, segmentSize, retainedSegments, flushIntervalMs,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    ChangeJournal(Path directory, int segmentSize, int retainedSegments, long flushIntervalMs,
+            MeterRegistry meterRegistry) throws IOException {
+        this.failures = Counter.builder("events.journal.failures")
+                .description("Committed changes that could not be journaled").register(meterRegistry);
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.retainedSegments = Math.max(1, retainedSegments);
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve("journal.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Change journal " + directory + " is used by another process");
+        }
+        open();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("journal-flush")
+                .daemon().factory());
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Change journal opened in {} at sequence {}", directory, lastSequence);
+    }
+
+    // runs after the publishing transaction commits, or immediately without one:
+    // the write has already succeeded, so a failure here must not reach the caller
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EventChange change) {
+        try {
+            append(change);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Could not journal {} of event {}", change.type(), change.idEvent(), e);
+        }
+    }
+
+    public synchronized long append(EventChange change) {
+        int maxSize = JournalCodec.maxRecordSize(change.description() == null ? 0 : change.description().length() * 3);
+        if (maxSize > segmentSize) {
+            throw new IllegalArgumentException("Change too large for a journal segment: " + maxSize + " bytes");
+        }
+        if (scratch.capacity() < maxSize) {
+            scratch = ByteBuffer.allocate(maxSize);
+        }
+        long sequence = lastSequence + 1;
+        int size = JournalCodec.encode(sequence, change, scratch);
+        if (active.limit + size > segmentSize) {
+            roll(sequence);
+        }
+        // payload first, then the length that makes the record visible to recovery
+        int offset = active.limit;
+        active.buffer.put(offset + 4, scratch, 4, size - 4);
+        active.buffer.putInt(offset, scratch.getInt(0));
+        active.limit = offset + size;
+        dirty = true;
+        lastSequence = sequence;
+        synchronized (appended) {
+            appended.notifyAll();
+        }
+        return sequence;
+    }
+
+    public ChangeJournalReader openReader(long fromSequence) {
+        return new ChangeJournalReader(this, fromSequence);
+    }
+
+    /**
+     * Delivers entries from {@code fromSequence} on, then every new entry, to
+     * {@code consumer} on a dedicated virtual thread until the subscription is
+     * closed. Use {@code getFirstSequence()} to replay the whole journal.
+     */
+    public Subscription subscribe(long fromSequence, Consumer<JournalEntry> consumer) {
+        Subscription subscription = new Subscription(openReader(fromSequence), consumer);
+        subscriptions.add(subscription);
+        subscription.thread = Thread.ofVirtual().name("journal-subscriber").start(subscription::run);
+        return subscription;
+    }
+
+    public long getFirstSequence() {
+        return segments.firstKey();
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public void flush() {
+        Segment segment;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            segment = active;
+        }
+        segment.buffer.force();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        flusher.shutdownNow();
+        flush();
+        lock.release();
+        lockChannel.close();
+    }
+
+    Segment segmentFor(long sequence) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(sequence);
+        return entry != null ? entry.getValue() : segments.firstEntry().getValue();
+    }
+
+    Segment nextSegment(Segment segment) {
+        Map.Entry<Long, Segment> entry = segments.higherEntry(segment.firstSequence);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    boolean awaitAppend(long afterSequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (appended) {
+            while (lastSequence <= afterSequence) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                appended.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    private void open() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                long firstSequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                segments.put(firstSequence, new Segment(firstSequence, file, map(file, false), segmentSize, true));
+            }
+        }
+        if (segments.isEmpty()) {
+            active = createSegment(1);
+            lastSequence = 0;
+            return;
+        }
+        active = segments.lastEntry().getValue();
+        active.sealed = false;
+        lastSequence = active.firstSequence - 1;
+        int offset = 0;
+        JournalEntry entry;
+        while ((entry = JournalCodec.decode(active.buffer, offset, segmentSize)) != null) {
+            offset += JournalCodec.HEADER_SIZE + active.buffer.getInt(offset);
+            lastSequence = entry.sequence();
+        }
+        active.limit = offset;
+        if (offset + 4 <= segmentSize && active.buffer.getInt(offset) != 0) {
+            // torn or corrupted tail: clear it so that it cannot be mistaken for records later
+            log.warn("Discarding corrupted tail of journal segment {} after sequence {}", active.path, lastSequence);
+            for (int i = offset; i < segmentSize; i++) {
+                active.buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private void roll(long firstSequence) {
+        active.buffer.force();
+        active.sealed = true;
+        active = createSegment(firstSequence);
+        while (segments.size() > retainedSegments) {
+            Segment oldest = segments.pollFirstEntry().getValue();
+            try {
+                // readers still on it keep their mapping until they move on
+                Files.deleteIfExists(oldest.path);
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}", oldest.path, e);
+            }
+        }
+    }
+
+    private Segment createSegment(long firstSequence) {
+        Path file = directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+        try {
+            Segment segment = new Segment(firstSequence, file, map(file, true), 0, false);
+            segments.put(firstSequence, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create journal segment " + file, e);
+        }
+    }
+
+    private MappedByteBuffer map(Path file, boolean create) throws IOException {
+        try (FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    static final class Segment {
+        final long firstSequence;
+        final Path path;
+        final MappedByteBuffer buffer;
+        // bytes written, published to readers after each append
+        volatile int limit;
+        volatile boolean sealed;
+
+        Segment(long firstSequence, Path path, MappedByteBuffer buffer, int limit, boolean sealed) {
+            this.firstSequence = firstSequence;
+            this.path = path;
+            this.buffer = buffer;
+            this.limit = limit;
+            this.sealed = sealed;
+        }
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final ChangeJournalReader reader;
+        private final Consumer<JournalEntry> consumer;
+        private volatile boolean closed;
+        private Thread thread;
+
+        private Subscription(ChangeJournalReader reader, Consumer<JournalEntry> consumer) {
+            this.reader = reader;
+            this.consumer = consumer;
+        }
+
+        /**
+         * Sequence number of the next entry to deliver, to resume from after a
+         * restart.
+         */
+        public long getPosition() {
+            return reader.getNextSequence();
+        }
+
+        private void run() {
+            try {
+                while (!closed) {
+                    List<JournalEntry> entries = reader.poll(SUBSCRIPTION_BATCH);
+                    if (entries.isEmpty()) {
+                        awaitAppend(reader.getNextSequence() - 1, 1000);
+                        continue;
+                    }
+                    for (JournalEntry entry : entries) {
+                        try {
+                            consumer.accept(entry);
+                        } catch (RuntimeException e) {
+                            log.warn("Journal subscriber failed on sequence {}", entry.sequence(), e);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package tn.fst.eventsproject.services;
+
+import tn.fst.eventsproject.dto.JournalEntry;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tailing cursor over the {@link ChangeJournal}: each {@link #poll} returns
+ * the entries appended since the previous one, following segment rolls. A
+ * reader asked for a sequence that retention already deleted starts at the
+ * oldest retained entry. Not thread-safe; one reader per consumer.
+ */
+public class ChangeJournalReader {
+
+    private final ChangeJournal journal;
+    private ChangeJournal.Segment segment;
+    private ByteBuffer view;
+    private int offset;
+    private long nextSequence;
+
+    ChangeJournalReader(ChangeJournal journal, long fromSequence) {
+        this.journal = journal;
+        this.nextSequence = Math.max(fromSequence, 1);
+        moveTo(journal.segmentFor(nextSequence));
+    }
+
+    public List<JournalEntry> poll(int max) {
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalEntry entry;
+        while (entries.size() < max && (entry = next()) != null) {
+            // entries before the requested start share its segment
+            if (entry.sequence() >= nextSequence) {
+                entries.add(entry);
+                nextSequence = entry.sequence() + 1;
+            }
+        }
+        return entries;
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    private JournalEntry next() {
+        while (true) {
+            // read sealed before limit: once sealed, the limit read next is final
+            boolean sealed = segment.sealed;
+            JournalEntry entry = JournalCodec.decode(view, offset, segment.limit);
+            if (entry != null) {
+                offset += JournalCodec.HEADER_SIZE + view.getInt(offset);
+                return entry;
+            }
+            ChangeJournal.Segment next = sealed ? journal.nextSegment(segment) : null;
+            if (next == null) {
+                return null;
+            }
+            moveTo(next);
+        }
+    }
+
+    private void moveTo(ChangeJournal.Segment target) {
+        segment = target;
+        view = target.buffer.duplicate();
+        offset = 0;
+    }
+}
@@ -0,0 +1,68 @@
+package tn.fst.eventsproject.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.LongSupplier;
+
+/**
+ * Fingerprint of the data the in-process caches are built from. Its main
+ * input is the {@link ChangeJournal} sequence, which moves on with every
+ * change the service layer publishes, including the cost updates that leave
+ * the {@code @Version} columns alone. Single
+ * aggregates over the hot and archive tables and the stock slots are mixed
+ * in for the writes that publish no change, such as archiving, purging or
+ * stocking, and for an instance running without the journal. A warm-start
+ * section recorded with an older value is discarded.
+ */
+final class DataVersion {
+
+    private static final String[] QUERIES = {
+            "select count(*), coalesce(max(id_event), 0), coalesce(sum(version), 0) from event",
+            "select count(*), coalesce(max(id_event), 0) from event_archive",
+            "select count(*), coalesce(max(id_part), 0), coalesce(sum(version), 0) from participant",
+            "select count(*), coalesce(max(id_log), 0),"
+                    + " coalesce(sum(case when reserve = true then prix_unit * quantite else 0 end), 0) from logistics",
+            "select count(*), coalesce(max(id_slot), 0), coalesce(sum(disponible), 0) from inventory_slot",
+            "select (select count(*) from event_logistics), (select count(*) from participant_events),"
+                    + " (select count(*) from event_logistics_archive),"
+                    + " (select count(*) from participant_events_archive)" };
+
+    private DataVersion() {
+    }
+
+    /**
+     * @param changeSequence journal sequence taken before the tables are
+     *        read, so that the fingerprint never claims changes the caller
+     *        may not have seen
+     */
+    static long read(JdbcTemplate jdbcTemplate, long changeSequence) {
+        long version = mix(0xcbf29ce484222325L, changeSequence);
+        for (String query : QUERIES) {
+            version = mix(version, jdbcTemplate.queryForObject(query, DataVersion::fold));
+        }
+        return version;
+    }
+
+    /** Last journaled sequence, or 0 when the journal is disabled. */
+    static LongSupplier changeSequence(ObjectProvider<ChangeJournal> changeJournal) {
+        return () -> {
+            ChangeJournal journal = changeJournal.getIfAvailable();
+            return journal == null ? 0 : journal.getLastSequence();
+        };
+    }
+
+    private static long fold(ResultSet rs, int rowNum) throws SQLException {
+        long value = 0;
+        for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+            value = mix(value, Double.doubleToLongBits(rs.getDouble(i)));
+        }
+        return value;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001b3L + (value >>> 29);
+    }
+}
@@ -0,0 +1,406 @@
+package tn.fst.eventsproject.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.fst.eventsproject.dto.CostBreakdown;
+import tn.fst.eventsproject.dto.MonthlyCost;
+import tn.fst.eventsproject.dto.RoleCost;
+import tn.fst.eventsproject.entities.Tache;
+
+import javax.sql.DataSource;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongSupplier;
+
+/**
+ * Cost reports served from a columnar copy of the events, archived ones
+ * included so that past periods keep their figures: one primitive array per
+ * column (start day, month, reserved logistics cost, participant
+ * roles as a bit set), sorted by start date. A report binary-searches the
+ * requested period and sums the matching slice with a fork-join task, so it
+ * never touches the database or the entity graphs.
+ *
+ * <p>
+ * The copy is rebuilt every {@code events.analytics.refresh-ms} and at
+ * start-up (or restored from the warm-start snapshot); reports reflect the
+ * data as of {@link CostBreakdown#snapshotTakenAt()}.
+ * Events without a start date are left out.
+ * </p>
+ */
+@Slf4j
+@Service
+public class EventAnalyticsServiceImpl implements IEventAnalyticsService, WarmStartCache {
+
+    private static final String EVENTS_QUERY = "select e.id_event, e.date_debut,"
+            + " coalesce(sum(case when l.reserve = true then l.prix_unit * l.quantite else 0 end), 0) as reserved"
+            + " from event e"
+            + " left join event_logistics el on el.event_id_event = e.id_event"
+            + " left join logistics l on l.id_log = el.logistics_id_log"
+            + " where e.date_debut is not null"
+            + " group by e.id_event, e.date_debut"
+            + " union all"
+            + " select e.id_event, e.date_debut,"
+            + " coalesce(sum(case when l.reserve = true then l.prix_unit * l.quantite else 0 end), 0) as reserved"
+            + " from event_archive e"
+            + " left join event_logistics_archive el on el.event_id_event = e.id_event"
+            + " left join logistics l on l.id_log = el.logistics_id_log"
+            + " where e.date_debut is not null"
+            + " group by e.id_event, e.date_debut"
+            + " order by date_debut, id_event";
+    private static final String ROLES_QUERY = "select distinct e.date_debut, e.id_event, p.tache"
+            + " from event e"
+            + " join participant_events pe on pe.events_id_event = e.id_event"
+            + " join participant p on p.id_part = pe.participants_id_part"
+            + " where e.date_debut is not null and p.tache is not null"
+            + " union"
+            + " select e.date_debut, e.id_event, p.tache"
+            + " from event_archive e"
+            + " join participant_events_archive pe on pe.events_id_event = e.id_event"
+            + " join participant p on p.id_part = pe.participants_id_part"
+            + " where e.date_debut is not null and p.tache is not null"
+            + " order by date_debut, id_event";
+    private static final Tache[] ROLES = Tache.values();
+    private static final int DEFAULT_LEAF_SIZE = 16_384;
+
+    static {
+        // role memberships are stored as one byte per event
+        if (ROLES.length > Byte.SIZE) {
+            throw new IllegalStateException("Too many Tache values for the analytics role bit set");
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int leafSize;
+    private final LongSupplier changeSequence;
+    private volatile Columns columns;
+
+    @Autowired
+    public EventAnalyticsServiceImpl(DataSource dataSource, PlatformTransactionManager transactionManager,
+            @Value("${events.export.fetch-size:1000}") int fetchSize, ObjectProvider<ChangeJournal> changeJournal) {
+        this(dataSource, transactionManager, fetchSize, DEFAULT_LEAF_SIZE, DataVersion.changeSequence(changeJournal));
+    }
+
+    EventAnalyticsServiceImpl(DataSource dataSource, PlatformTransactionManager transactionManager, int fetchSize,
+            int leafSize, LongSupplier changeSequence) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.leafSize = leafSize;
+        this.changeSequence = changeSequence;
+    }
+
+    @Scheduled(fixedDelayString = "${events.analytics.refresh-ms:300000}",
+            initialDelayString = "${events.analytics.refresh-ms:300000}")
+    @Override
+    public void refresh() {
+        long start = System.nanoTime();
+        Columns loaded = load();
+        columns = loaded;
+        log.info("Cost analytics snapshot of {} events loaded in {} ms", loaded.size,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public CostBreakdown getCostBreakdown(LocalDate from, LocalDate to) {
+        Columns snapshot = columns;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (columns == null) {
+                    refresh();
+                }
+                snapshot = columns;
+            }
+        }
+        int lo = from == null ? 0 : firstAtOrAfter(snapshot, from.toEpochDay());
+        int hi = to == null ? snapshot.size : firstAtOrAfter(snapshot, to.toEpochDay() + 1);
+        if (lo >= hi) {
+            return new CostBreakdown(snapshot.takenAt, 0, 0, emptyRoles(), List.of());
+        }
+        int firstMonth = snapshot.months[lo];
+        int monthCount = snapshot.months[hi - 1] - firstMonth + 1;
+        Totals totals = ForkJoinPool.commonPool()
+                .invoke(new Aggregation(snapshot, lo, hi, firstMonth, monthCount, leafSize));
+        return toBreakdown(snapshot.takenAt, hi - lo, firstMonth, totals);
+    }
+
+    private Columns load() {
+        Instant takenAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        ColumnsBuilder builder = new ColumnsBuilder();
+        // journaled changes are committed, so the transaction below sees at
+        // least everything up to this sequence
+        long sequence = changeSequence.getAsLong();
+        // a single read-only transaction, so that on MySQL (REPEATABLE READ)
+        // both queries and the data version see the same state of the tables
+        long dataVersion = transactionTemplate.execute(status -> {
+            jdbcTemplate.query(EVENTS_QUERY, builder::addEvent);
+            jdbcTemplate.query(ROLES_QUERY, builder::addRole);
+            return DataVersion.read(jdbcTemplate, sequence);
+        });
+        return builder.build(takenAt, dataVersion);
+    }
+
+    @Override
+    public String warmStartName() {
+        return "cost-analytics";
+    }
+
+    @Override
+    public long warmStartVersion(long currentVersion) {
+        Columns snapshot = columns;
+        return snapshot == null ? -1 : snapshot.dataVersion;
+    }
+
+    @Override
+    public void writeWarmStart(DataOutputStream out) throws IOException {
+        Columns snapshot = columns;
+        out.writeLong(snapshot.takenAt.toEpochMilli());
+        out.writeLong(snapshot.dataVersion);
+        out.writeInt(snapshot.size);
+        for (int i = 0; i < snapshot.size; i++) {
+            out.writeInt(snapshot.days[i]);
+        }
+        for (int i = 0; i < snapshot.size; i++) {
+            out.writeInt(snapshot.months[i]);
+        }
+        for (int i = 0; i < snapshot.size; i++) {
+            out.writeDouble(snapshot.costs[i]);
+        }
+        out.write(snapshot.roles, 0, snapshot.size);
+    }
+
+    /**
+     * Columns are copied straight out of the mapped section with bulk
+     * buffer reads.
+     */
+    @Override
+    public void readWarmStart(ByteBuffer in) {
+        Instant takenAt = Instant.ofEpochMilli(in.getLong());
+        long dataVersion = in.getLong();
+        int size = in.getInt();
+        int[] days = new int[size];
+        int[] months = new int[size];
+        double[] costs = new double[size];
+        byte[] roles = new byte[size];
+        in.asIntBuffer().get(days);
+        in.position(in.position() + size * Integer.BYTES);
+        in.asIntBuffer().get(months);
+        in.position(in.position() + size * Integer.BYTES);
+        in.asDoubleBuffer().get(costs);
+        in.position(in.position() + size * Double.BYTES);
+        in.get(roles);
+        columns = new Columns(takenAt, dataVersion, size, days, months, costs, roles);
+        log.info("Cost analytics snapshot of {} events restored, taken at {}", size, takenAt);
+    }
+
+    private static int firstAtOrAfter(Columns snapshot, long epochDay) {
+        int lo = 0;
+        int hi = snapshot.size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (snapshot.days[mid] < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static CostBreakdown toBreakdown(Instant takenAt, long events, int firstMonth, Totals totals) {
+        Map<Tache, RoleCost> byTache = new EnumMap<>(Tache.class);
+        double[] roleCost = new double[ROLES.length];
+        List<MonthlyCost> byMonth = new ArrayList<>();
+        double cout = 0;
+        for (int m = 0; m < totals.monthEvents.length; m++) {
+            if (totals.monthEvents[m] == 0) {
+                continue;
+            }
+            Map<Tache, Double> coutByTache = new EnumMap<>(Tache.class);
+            for (int r = 0; r < ROLES.length; r++) {
+                double value = totals.monthRoleCost[m * ROLES.length + r];
+                coutByTache.put(ROLES[r], value);
+                roleCost[r] += value;
+            }
+            int month = firstMonth + m;
+            byMonth.add(new MonthlyCost(YearMonth.of(month / 12, month % 12 + 1), totals.monthEvents[m],
+                    totals.monthCost[m], coutByTache));
+            cout += totals.monthCost[m];
+        }
+        for (int r = 0; r < ROLES.length; r++) {
+            byTache.put(ROLES[r], new RoleCost(totals.roleEvents[r], roleCost[r]));
+        }
+        return new CostBreakdown(takenAt, events, cout, byTache, byMonth);
+    }
+
+    private static Map<Tache, RoleCost> emptyRoles() {
+        Map<Tache, RoleCost> byTache = new EnumMap<>(Tache.class);
+        for (Tache role : ROLES) {
+            byTache.put(role, new RoleCost(0, 0));
+        }
+        return byTache;
+    }
+
+    /**
+     * Immutable column arrays; index {@code i} of every array describes the
+     * same event. {@code months} counts months since year 0.
+     */
+    private record Columns(Instant takenAt, long dataVersion, int size, int[] days, int[] months, double[] costs,
+            byte[] roles) {
+    }
+
+    private static final class ColumnsBuilder {
+        private int size;
+        private int[] ids = new int[1024];
+        private int[] days = new int[1024];
+        private int[] months = new int[1024];
+        private double[] costs = new double[1024];
+        private byte[] roles;
+        private int cursor;
+
+        void addEvent(ResultSet rs) throws SQLException {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                days = Arrays.copyOf(days, capacity);
+                months = Arrays.copyOf(months, capacity);
+                costs = Arrays.copyOf(costs, capacity);
+            }
+            LocalDate dateDebut = rs.getDate(2).toLocalDate();
+            ids[size] = rs.getInt(1);
+            days[size] = (int) dateDebut.toEpochDay();
+            months[size] = dateDebut.getYear() * 12 + dateDebut.getMonthValue() - 1;
+            costs[size] = rs.getDouble(3);
+            size++;
+        }
+
+        /**
+         * Role rows come in the same order as the events, so they are merged
+         * with a single forward pass.
+         */
+        void addRole(ResultSet rs) throws SQLException {
+            if (roles == null) {
+                roles = new byte[size];
+            }
+            int day = (int) rs.getDate(1).toLocalDate().toEpochDay();
+            int id = rs.getInt(2);
+            while (cursor < size && (days[cursor] < day || days[cursor] == day && ids[cursor] < id)) {
+                cursor++;
+            }
+            if (cursor < size && days[cursor] == day && ids[cursor] == id) {
+                roles[cursor] |= (byte) (1 << Tache.valueOf(rs.getString(3)).ordinal());
+            }
+        }
+
+        Columns build(Instant takenAt, long dataVersion) {
+            return new Columns(takenAt, dataVersion, size, Arrays.copyOf(days, size), Arrays.copyOf(months, size),
+                    Arrays.copyOf(costs, size), roles == null ? new byte[size] : roles);
+        }
+    }
+
+    private static final class Totals {
+        private final long[] monthEvents;
+        private final double[] monthCost;
+        private final double[] monthRoleCost;
+        private final long[] roleEvents = new long[ROLES.length];
+
+        Totals(int monthCount) {
+            monthEvents = new long[monthCount];
+            monthCost = new double[monthCount];
+            monthRoleCost = new double[monthCount * ROLES.length];
+        }
+
+        Totals merge(Totals other) {
+            add(monthEvents, other.monthEvents);
+            add(monthCost, other.monthCost);
+            add(monthRoleCost, other.monthRoleCost);
+            add(roleEvents, other.roleEvents);
+            return this;
+        }
+
+        private static void add(long[] target, long[] source) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] += source[i];
+            }
+        }
+
+        private static void add(double[] target, double[] source) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] += source[i];
+            }
+        }
+    }
+
+    private static final class Aggregation extends RecursiveTask<Totals> {
+        private final Columns columns;
+        private final int lo;
+        private final int hi;
+        private final int firstMonth;
+        private final int monthCount;
+        private final int leafSize;
+
+        Aggregation(Columns columns, int lo, int hi, int firstMonth, int monthCount, int leafSize) {
+            this.columns = columns;
+            this.lo = lo;
+            this.hi = hi;
+            this.firstMonth = firstMonth;
+            this.monthCount = monthCount;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (hi - lo <= leafSize) {
+                return sum();
+            }
+            int mid = (lo + hi) >>> 1;
+            Aggregation left = new Aggregation(columns, lo, mid, firstMonth, monthCount, leafSize);
+            left.fork();
+            Totals right = new Aggregation(columns, mid, hi, firstMonth, monthCount, leafSize).compute();
+            return left.join().merge(right);
+        }
+
+        private Totals sum() {
+            Totals totals = new Totals(monthCount);
+            int[] months = columns.months();
+            double[] costs = columns.costs();
+            byte[] roles = columns.roles();
+            for (int i = lo; i < hi; i++) {
+                int m = months[i] - firstMonth;
+                double cost = costs[i];
+                totals.monthEvents[m]++;
+                totals.monthCost[m] += cost;
+                int mask = roles[i] & 0xFF;
+                for (int r = 0; mask != 0; r++, mask >>>= 1) {
+                    if ((mask & 1) != 0) {
+                        totals.roleEvents[r]++;
+                        totals.monthRoleCost[m * ROLES.length + r] += cost;
+                    }
+                }
+            }
+            return totals;
+        }
+    }
+}
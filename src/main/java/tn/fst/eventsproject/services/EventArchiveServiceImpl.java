@@ -0,0 +1,169 @@
+package tn.fst.eventsproject.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+import tn.fst.eventsproject.repositories.ArchivedEventRepository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves completed events out of the hot tables ({@code event},
+ * {@code event_logistics}, {@code participant_events}) into their archive
+ * counterparts once their end date is more than
+ * {@code events.archive.horizon-days} old.
+ *
+ * <p>
+ * Events are moved in chunks of {@code events.archive.chunk-size}, each in its
+ * own transaction with set-based {@code INSERT ... SELECT} and
+ * {@code DELETE} statements, so a large backlog never holds locks for long.
+ * </p>
+ *
+ * <p>
+ * Readers only query the archive when their range starts on or before the
+ * latest archived start date, or before the horizon (which also covers events
+ * archived by another instance).
+ * </p>
+ */
+@Slf4j
+@Service
+public class EventArchiveServiceImpl implements IEventArchiveService {
+
+    private final ArchivedEventRepository archivedEventRepository;
+    private final EventDescriptionIndex eventDescriptionIndex;
+    private final ParticipantScheduleIndex participantScheduleIndex;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+    private final int chunkSize;
+    private volatile LocalDate latestArchivedStart;
+
+    public EventArchiveServiceImpl(ArchivedEventRepository archivedEventRepository,
+            EventDescriptionIndex eventDescriptionIndex, ParticipantScheduleIndex participantScheduleIndex,
+            DataSource dataSource, PlatformTransactionManager transactionManager,
+            @Value("${events.archive.horizon-days:365}") int horizonDays,
+            @Value("${events.archive.chunk-size:500}") int chunkSize) {
+        this.archivedEventRepository = archivedEventRepository;
+        this.eventDescriptionIndex = eventDescriptionIndex;
+        this.participantScheduleIndex = participantScheduleIndex;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizonDays = horizonDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadWatermark() {
+        latestArchivedStart = archivedEventRepository.findLatestDateDebut();
+    }
+
+    @Scheduled(cron = "${events.archive.cron:0 30 3 * * *}")
+    @Override
+    public void archivePastEvents() {
+        archiveEventsEndedBefore(LocalDate.now().minusDays(horizonDays));
+    }
+
+    @Override
+    public int archiveEventsEndedBefore(LocalDate horizon) {
+        long start = System.currentTimeMillis();
+        int total = 0;
+        while (true) {
+            Chunk chunk = transactionTemplate.execute(status -> archiveChunk(horizon));
+            // archived events can no longer be looked up or linked
+            chunk.events().forEach(eventDescriptionIndex::remove);
+            chunk.participants().forEach(participantScheduleIndex::evict);
+            total += chunk.events().size();
+            if (chunk.selected() < chunkSize) {
+                break;
+            }
+        }
+        log.info("Archived {} events ended before {} in {} ms", total, horizon, System.currentTimeMillis() - start);
+        return total;
+    }
+
+    @Override
+    public List<ArchivedEvent> findArchivedEvents(LocalDate date_debut, LocalDate date_fin) {
+        if (date_debut == null || !reachesArchive(date_debut)) {
+            return List.of();
+        }
+        return archivedEventRepository.findByDateDebutBetween(date_debut, date_fin);
+    }
+
+    /**
+     * Whether events starting on or after {@code date_debut} (any start date
+     * when null) may have been archived.
+     */
+    @Override
+    public boolean reachesArchive(LocalDate date_debut) {
+        if (date_debut == null) {
+            return true;
+        }
+        LocalDate latest = latestArchivedStart;
+        return date_debut.isBefore(LocalDate.now().minusDays(horizonDays))
+                || (latest != null && !date_debut.isAfter(latest));
+    }
+
+    private Chunk archiveChunk(LocalDate horizon) {
+        // the chunk is picked without locks along idx_event_date_fin, then only
+        // its rows are locked by primary key and re-checked: a locking range
+        // scan would lock every old row it walks past, and keep them locked
+        MapSqlParameterSource params = new MapSqlParameterSource("horizon", Date.valueOf(horizon))
+                .addValue("limit", chunkSize);
+        List<Integer> selected = jdbcTemplate.queryForList("select id_event from event where date_fin < :horizon"
+                + " order by date_fin, id_event limit :limit", params, Integer.class);
+        if (selected.isEmpty()) {
+            return new Chunk(List.of(), List.of(), 0);
+        }
+        // the row locks keep new links from being added to events being moved
+        List<Integer> ids = jdbcTemplate.queryForList("select id_event from event"
+                + " where id_event in (:ids) and date_fin < :horizon order by id_event for update",
+                params.addValue("ids", selected), Integer.class);
+        if (ids.isEmpty()) {
+            return new Chunk(List.of(), List.of(), selected.size());
+        }
+        MapSqlParameterSource chunk = new MapSqlParameterSource("ids", ids);
+        // readers start looking at the archive before the rows leave the hot table
+        Date latest = jdbcTemplate.queryForObject("select max(date_debut) from event where id_event in (:ids)",
+                chunk, Date.class);
+        if (latest != null) {
+            raiseWatermark(latest.toLocalDate());
+        }
+        List<Integer> participants = jdbcTemplate.queryForList(
+                "select distinct participants_id_part from participant_events where events_id_event in (:ids)",
+                chunk, Integer.class);
+
+        jdbcTemplate.update("insert into event_archive (id_event, description, date_debut, date_fin, cout)"
+                + " select id_event, description, date_debut, date_fin, cout from event where id_event in (:ids)",
+                chunk);
+        jdbcTemplate.update("insert into event_logistics_archive (event_id_event, logistics_id_log)"
+                + " select event_id_event, logistics_id_log from event_logistics where event_id_event in (:ids)",
+                chunk);
+        jdbcTemplate.update("insert into participant_events_archive (events_id_event, participants_id_part)"
+                + " select events_id_event, participants_id_part from participant_events"
+                + " where events_id_event in (:ids)", chunk);
+        jdbcTemplate.update("delete from event_logistics where event_id_event in (:ids)", chunk);
+        jdbcTemplate.update("delete from participant_events where events_id_event in (:ids)", chunk);
+        jdbcTemplate.update("delete from event where id_event in (:ids)", chunk);
+        return new Chunk(ids, participants, selected.size());
+    }
+
+    private synchronized void raiseWatermark(LocalDate dateDebut) {
+        if (latestArchivedStart == null || dateDebut.isAfter(latestArchivedStart)) {
+            latestArchivedStart = dateDebut;
+        }
+    }
+
+    private record Chunk(List<Integer> events, List<Integer> participants, int selected) {
+    }
+}
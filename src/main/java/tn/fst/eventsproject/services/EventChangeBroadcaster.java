@@ -0,0 +1,172 @@
+package tn.fst.eventsproject.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes {@link EventChange} notifications to server-sent event subscribers.
+ *
+ * <p>
+ * Every subscriber owns a buffer bounded to {@code events.changes.buffer-size}
+ * entries. Changes with the same coalescing key replace each other (only the
+ * latest cost of an event is kept); when the buffer is still full the oldest
+ * change is dropped and the subscriber receives a {@code dropped} event with
+ * the number of lost changes, so it knows to re-read. Buffers are drained by
+ * one virtual thread per subscriber at a time, so a slow client only delays
+ * itself.
+ * </p>
+ */
+@Slf4j
+@Component
+public class EventChangeBroadcaster {
+
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final ExecutorService executor;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public EventChangeBroadcaster(@Value("${events.changes.buffer-size:256}") int bufferSize,
+            @Value("${events.changes.timeout-ms:1800000}") long timeoutMillis) {
+        this(bufferSize, timeoutMillis, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    EventChangeBroadcaster(int bufferSize, long timeoutMillis, ExecutorService executor) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = executor;
+    }
+
+    public SseEmitter subscribe(Integer idEvent, LocalDate from, LocalDate to) {
+        return subscribe(new SseEmitter(timeoutMillis), idEvent, from, to);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Integer idEvent, LocalDate from, LocalDate to) {
+        Subscription subscription = new Subscription(emitter, idEvent, from, to);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        return emitter;
+    }
+
+    // runs after the publishing transaction commits, or immediately without one
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EventChange change) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.accepts(change)) {
+                subscription.offer(change);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscription subscription : subscriptions) {
+            subscription.emitter.complete();
+        }
+        subscriptions.clear();
+        executor.shutdownNow();
+    }
+
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final Integer idEvent;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final LinkedHashMap<String, EventChange> pending = new LinkedHashMap<>();
+        private long dropped;
+        private boolean draining;
+
+        Subscription(SseEmitter emitter, Integer idEvent, LocalDate from, LocalDate to) {
+            this.emitter = emitter;
+            this.idEvent = idEvent;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean accepts(EventChange change) {
+            // the stream is about events; new participants only reach the journal
+            if (change.type() == EventChangeType.PARTICIPANT_ADDED) {
+                return false;
+            }
+            if (idEvent != null && idEvent != change.idEvent()) {
+                return false;
+            }
+            if (from == null && to == null) {
+                return true;
+            }
+            LocalDate dateDebut = change.dateDebut();
+            return dateDebut != null && (from == null || !dateDebut.isBefore(from))
+                    && (to == null || !dateDebut.isAfter(to));
+        }
+
+        synchronized void offer(EventChange change) {
+            String key = change.coalescingKey();
+            pending.remove(key);
+            pending.put(key, change);
+            if (pending.size() > bufferSize) {
+                Iterator<EventChange> oldest = pending.values().iterator();
+                oldest.next();
+                oldest.remove();
+                dropped++;
+            }
+            if (!draining) {
+                draining = true;
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<EventChange> batch;
+                long lost;
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    lost = dropped;
+                    dropped = 0;
+                }
+                try {
+                    if (lost > 0) {
+                        emitter.send(SseEmitter.event().name("dropped").data(lost));
+                    }
+                    for (EventChange change : batch) {
+                        emitter.send(SseEmitter.event().name(change.type().name()).data(change));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Change stream subscriber gone: {}", e.getMessage());
+                    subscriptions.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package tn.fst.eventsproject.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tn.fst.eventsproject.dto.EventSummary;
+import tn.fst.eventsproject.repositories.EventRepository;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process index over {@code Event.description}, kept in memory so that
+ * prefix and token lookups never hit the database.
+ *
+ * <p>
+ * Two sorted maps are maintained: normalized full descriptions (for "starts
+ * with" matches, ranked first) and normalized tokens (for word matches, the
+ * last query word being treated as a prefix). Descriptions are lower-cased
+ * and stripped of accents. The index is rebuilt from the database once the
+ * application is ready and updated by the service layer on every event write.
+ * </p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class EventDescriptionIndex implements WarmStartCache {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final EventRepository eventRepository;
+
+    private final Map<Integer, String> descriptions = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Integer>> phrases = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Set<Integer>> tokens = new ConcurrentSkipListMap<>();
+
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        descriptions.clear();
+        phrases.clear();
+        tokens.clear();
+        try (Stream<EventSummary> summaries = eventRepository.streamAllSummaries()) {
+            summaries.forEach(summary -> index(summary.idEvent(), summary.description()));
+        }
+        log.info("Event description index rebuilt with {} events in {} ms", descriptions.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    public void index(int idEvent, String description) {
+        if (description == null) {
+            remove(idEvent);
+            return;
+        }
+        String previous = descriptions.put(idEvent, description);
+        if (description.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unlink(idEvent, previous);
+        }
+        String normalized = normalize(description);
+        addPosting(phrases, normalized, idEvent);
+        for (String token : tokenize(normalized)) {
+            addPosting(tokens, token, idEvent);
+        }
+    }
+
+    public void remove(int idEvent) {
+        String previous = descriptions.remove(idEvent);
+        if (previous != null) {
+            unlink(idEvent, previous);
+        }
+    }
+
+    public int size() {
+        return descriptions.size();
+    }
+
+    @Override
+    public String warmStartName() {
+        return "event-descriptions";
+    }
+
+    @Override
+    public void writeWarmStart(DataOutputStream out) throws IOException {
+        Map<Integer, String> copy = new HashMap<>(descriptions);
+        out.writeInt(copy.size());
+        for (Map.Entry<Integer, String> entry : copy.entrySet()) {
+            out.writeInt(entry.getKey());
+            WarmStartSnapshot.writeString(out, entry.getValue());
+        }
+    }
+
+    @Override
+    public void readWarmStart(ByteBuffer in) {
+        descriptions.clear();
+        phrases.clear();
+        tokens.clear();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            index(in.getInt(), WarmStartSnapshot.readString(in));
+        }
+        log.info("Event description index restored with {} events", descriptions.size());
+    }
+
+    /**
+     * Resolves an exact (case-sensitive) description to the smallest matching
+     * event id, mirroring {@code findFirstByDescription}.
+     */
+    public Optional<Integer> findFirstIdByDescription(String description) {
+        if (description == null) {
+            return Optional.empty();
+        }
+        Set<Integer> ids = phrases.get(normalize(description));
+        if (ids == null) {
+            return Optional.empty();
+        }
+        return ids.stream()
+                .filter(id -> description.equals(descriptions.get(id)))
+                .min(Integer::compare);
+    }
+
+    /**
+     * Returns at most {@code limit} events: descriptions starting with the
+     * query first, then events containing every query word (the last one as a
+     * prefix).
+     */
+    public List<EventSummary> search(String query, int limit) {
+        String normalized = query == null ? "" : normalize(query).trim();
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<Integer> hits = new LinkedHashSet<>();
+        collectPhrasePrefix(normalized, hits, limit);
+        if (hits.size() < limit) {
+            collectTokenMatches(tokenize(normalized), hits, limit);
+        }
+        List<EventSummary> results = new ArrayList<>(hits.size());
+        for (Integer id : hits) {
+            String description = descriptions.get(id);
+            if (description != null) {
+                results.add(new EventSummary(id, description));
+            }
+        }
+        return results;
+    }
+
+    private void collectPhrasePrefix(String prefix, Set<Integer> hits, int limit) {
+        for (Set<Integer> ids : prefixRange(phrases, prefix).values()) {
+            for (Integer id : ids) {
+                hits.add(id);
+                if (hits.size() >= limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void collectTokenMatches(List<String> queryTokens, Set<Integer> hits, int limit) {
+        if (queryTokens.isEmpty()) {
+            return;
+        }
+        String last = queryTokens.get(queryTokens.size() - 1);
+        List<Set<Integer>> required = new ArrayList<>();
+        for (String token : queryTokens.subList(0, queryTokens.size() - 1)) {
+            Set<Integer> ids = tokens.get(token);
+            if (ids == null) {
+                return;
+            }
+            required.add(ids);
+        }
+        // tokens are visited in lexicographic order, so an exact match on the
+        // last word comes before longer words sharing its prefix
+        Iterator<Set<Integer>> postings = prefixRange(tokens, last).values().iterator();
+        while (postings.hasNext() && hits.size() < limit) {
+            for (Integer id : postings.next()) {
+                if (containedInAll(id, required)) {
+                    hits.add(id);
+                    if (hits.size() >= limit) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean containedInAll(Integer id, List<Set<Integer>> sets) {
+        for (Set<Integer> set : sets) {
+            if (!set.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void unlink(int idEvent, String description) {
+        String normalized = normalize(description);
+        removePosting(phrases, normalized, idEvent);
+        for (String token : tokenize(normalized)) {
+            removePosting(tokens, token, idEvent);
+        }
+    }
+
+    private static void addPosting(ConcurrentSkipListMap<String, Set<Integer>> map, String key, int idEvent) {
+        map.compute(key, (k, ids) -> {
+            Set<Integer> postings = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            postings.add(idEvent);
+            return postings;
+        });
+    }
+
+    private static void removePosting(ConcurrentSkipListMap<String, Set<Integer>> map, String key, int idEvent) {
+        map.computeIfPresent(key, (k, ids) -> {
+            ids.remove(idEvent);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static NavigableMap<String, Set<Integer>> prefixRange(ConcurrentSkipListMap<String, Set<Integer>> map,
+            String prefix) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String normalized) {
+        List<String> result = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                result.add(token);
+            }
+        }
+        return result;
+    }
+}
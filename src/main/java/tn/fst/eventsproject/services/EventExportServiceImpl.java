@@ -0,0 +1,234 @@
+package tn.fst.eventsproject.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the event catalog (events, their reserved logistics and participant
+ * counts) straight from a forward-only JDBC cursor to the response body.
+ *
+ * <p>
+ * Rows are ordered by event id so only the logistics of the event currently
+ * being written are held in memory, whatever the size of the tables.
+ * Archived events are read from the archive tables in the same statement,
+ * so an event being moved by the archiving job is exported exactly once.
+ * </p>
+ */
+@Slf4j
+@Service
+public class EventExportServiceImpl implements IEventExportService {
+
+    // %1$s is the date filter, applied inside both branches of the union
+    private static final String EXPORT_QUERY = "select e.id_event, e.description, e.date_debut, e.date_fin, e.cout,"
+            + " e.nb_participants, rl.id_log, rl.description as log_description, rl.prix_unit, rl.quantite"
+            + " from (select h.id_event, h.description, h.date_debut, h.date_fin, h.cout,"
+            + " (select count(*) from participant_events pe where pe.events_id_event = h.id_event) as nb_participants"
+            + " from event h%1$s"
+            + " union all select a.id_event, a.description, a.date_debut, a.date_fin, a.cout,"
+            + " (select count(*) from participant_events_archive pa where pa.events_id_event = a.id_event)"
+            + " from event_archive a%1$s) e"
+            + " left join (select el.event_id_event, l.id_log, l.description, l.prix_unit, l.quantite"
+            + " from event_logistics el join logistics l on l.id_log = el.logistics_id_log where l.reserve = true"
+            + " union all select ela.event_id_event, l.id_log, l.description, l.prix_unit, l.quantite"
+            + " from event_logistics_archive ela join logistics l on l.id_log = ela.logistics_id_log"
+            + " where l.reserve = true) rl on rl.event_id_event = e.id_event"
+            + " order by e.id_event";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public EventExportServiceImpl(DataSource dataSource, ObjectMapper objectMapper,
+            @Value("${events.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void exportEvents(ExportFormat format, LocalDate dateDebut, LocalDate dateFin, OutputStream out)
+            throws IOException {
+        StringBuilder filter = new StringBuilder();
+        List<Object> branchArgs = new ArrayList<>();
+        String clause = " where ";
+        if (dateDebut != null) {
+            filter.append(clause).append("date_debut >= ?");
+            branchArgs.add(Date.valueOf(dateDebut));
+            clause = " and ";
+        }
+        if (dateFin != null) {
+            filter.append(clause).append("date_debut <= ?");
+            branchArgs.add(Date.valueOf(dateFin));
+        }
+        String sql = String.format(EXPORT_QUERY, filter);
+        List<Object> args = new ArrayList<>(branchArgs);
+        args.addAll(branchArgs);
+
+        ExportWriter writer = format == ExportFormat.CSV ? new CsvExportWriter(out) : new NdjsonExportWriter(out);
+        EventRowAssembler assembler = new EventRowAssembler(writer);
+        try {
+            jdbcTemplate.query(sql, assembler::processRow, args.toArray());
+            assembler.finish();
+            writer.close();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} events as {}", assembler.count, format);
+    }
+
+    record ExportedLogistics(int idLog, String description, float prixUnit, int quantite) {
+    }
+
+    record ExportedEvent(int idEvent, String description, LocalDate dateDebut, LocalDate dateFin, float cout,
+            long participants, List<ExportedLogistics> logistics) {
+    }
+
+    /**
+     * Groups consecutive cursor rows belonging to the same event and hands
+     * each complete event to the writer.
+     */
+    private static final class EventRowAssembler {
+        private final ExportWriter writer;
+        private ExportedEvent current;
+        private long count;
+
+        EventRowAssembler(ExportWriter writer) {
+            this.writer = writer;
+        }
+
+        void processRow(ResultSet rs) throws SQLException {
+            int idEvent = rs.getInt("id_event");
+            if (current == null || current.idEvent() != idEvent) {
+                finish();
+                Date debut = rs.getDate("date_debut");
+                Date fin = rs.getDate("date_fin");
+                current = new ExportedEvent(idEvent, rs.getString("description"),
+                        debut == null ? null : debut.toLocalDate(), fin == null ? null : fin.toLocalDate(),
+                        rs.getFloat("cout"), rs.getLong("nb_participants"), new ArrayList<>());
+            }
+            int idLog = rs.getInt("id_log");
+            if (!rs.wasNull()) {
+                current.logistics().add(new ExportedLogistics(idLog, rs.getString("log_description"),
+                        rs.getFloat("prix_unit"), rs.getInt("quantite")));
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                writer.write(current);
+                count++;
+                current = null;
+            }
+        }
+    }
+
+    private interface ExportWriter {
+        void write(ExportedEvent event);
+
+        void close() throws IOException;
+    }
+
+    /**
+     * One line per reserved logistics item; events without reserved logistics
+     * still get a single line with empty logistics columns.
+     */
+    private static final class CsvExportWriter implements ExportWriter {
+        private final Writer writer;
+
+        CsvExportWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            line("idEvent,description,dateDebut,dateFin,cout,participants,idLog,logDescription,prixUnit,quantite");
+        }
+
+        @Override
+        public void write(ExportedEvent event) {
+            String prefix = event.idEvent() + "," + escape(event.description()) + ","
+                    + (event.dateDebut() == null ? "" : event.dateDebut()) + ","
+                    + (event.dateFin() == null ? "" : event.dateFin()) + ","
+                    + event.cout() + "," + event.participants() + ",";
+            if (event.logistics().isEmpty()) {
+                line(prefix + ",,,");
+                return;
+            }
+            for (ExportedLogistics logistics : event.logistics()) {
+                line(prefix + logistics.idLog() + "," + escape(logistics.description()) + ","
+                        + logistics.prixUnit() + "," + logistics.quantite());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private void line(String value) {
+            try {
+                writer.write(value);
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * One JSON object per event, with its reserved logistics nested.
+     */
+    private final class NdjsonExportWriter implements ExportWriter {
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        NdjsonExportWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void write(ExportedEvent event) {
+            try {
+                generator.writeObject(event);
+                empty = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+}
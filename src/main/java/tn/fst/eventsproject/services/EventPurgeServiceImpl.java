@@ -0,0 +1,329 @@
+package tn.fst.eventsproject.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+import tn.fst.eventsproject.dto.PurgeProgress;
+import tn.fst.eventsproject.dto.PurgeRequest;
+import tn.fst.eventsproject.dto.PurgeStatus;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deletes many events at once, by id list or by dateDebut range, in the
+ * background, whether they are still in the hot tables or already archived.
+ *
+ * <p>
+ * Events are deleted {@code events.purge.chunk-size} at a time, in id order
+ * (start date order for a date range), each chunk in its own short transaction: the event rows are locked by
+ * primary key (a date range chunk is picked beforehand without locks), then
+ * their {@code event_logistics} and {@code participant_events} rows and the
+ * events themselves are removed with one set-based DELETE per table. A date
+ * range purge goes through the hot tables first, then through their archive
+ * counterparts; each chunk of ids is looked up in both. Between chunks the
+ * purge sleeps at least {@code events.purge.pause-ms} and at least as long
+ * as the chunk took, so it never keeps the database busy more than half of
+ * the time and live requests waiting on its locks get through.
+ * </p>
+ *
+ * <p>
+ * Logistics rows are kept, as with a single event deletion, but the stock
+ * that reserved items took from the shared inventory is released once their
+ * chunk has committed.
+ * </p>
+ *
+ * <p>
+ * Only one purge runs at a time. Its progress can be polled and it can be
+ * cancelled between two chunks.
+ * </p>
+ */
+@Slf4j
+@Service
+public class EventPurgeServiceImpl implements IEventPurgeService {
+
+    private static final int KEPT_PURGES = 20;
+    private static final Tables HOT = new Tables("event", "event_logistics", "participant_events");
+    private static final Tables ARCHIVE = new Tables("event_archive", "event_logistics_archive",
+            "participant_events_archive");
+
+    private final EventDescriptionIndex eventDescriptionIndex;
+    private final ParticipantScheduleIndex participantScheduleIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IInventoryService inventoryService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final Map<String, Purge> purges = new ConcurrentHashMap<>();
+    private Purge running;
+
+    public EventPurgeServiceImpl(EventDescriptionIndex eventDescriptionIndex,
+            ParticipantScheduleIndex participantScheduleIndex, ApplicationEventPublisher eventPublisher,
+            IInventoryService inventoryService, DataSource dataSource, PlatformTransactionManager transactionManager,
+            @Value("${events.purge.chunk-size:500}") int chunkSize,
+            @Value("${events.purge.pause-ms:100}") long pauseMillis) {
+        this.eventDescriptionIndex = eventDescriptionIndex;
+        this.participantScheduleIndex = participantScheduleIndex;
+        this.eventPublisher = eventPublisher;
+        this.inventoryService = inventoryService;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public synchronized PurgeProgress startPurge(PurgeRequest request) {
+        boolean byIds = request.ids() != null && !request.ids().isEmpty();
+        boolean byDates = request.from() != null && request.to() != null;
+        if (byIds == byDates || (byDates && request.from().isAfter(request.to()))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Give either a non-empty list of ids or a date range with from <= to");
+        }
+        if (running != null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    String.format("Purge %s is still running", running.id));
+        }
+        long matched = byIds ? request.ids().stream().distinct().count()
+                : jdbcTemplate.queryForObject("select (select count(*) from event where date_debut between :from and :to)"
+                        + " + (select count(*) from event_archive where date_debut between :from and :to)",
+                        dateRange(request), Long.class);
+        Purge purge = new Purge(UUID.randomUUID().toString(), request, matched);
+        running = purge;
+        forgetOldPurges();
+        purges.put(purge.id, purge);
+        Thread.ofVirtual().name("event-purge").start(() -> run(purge));
+        log.info("Purge {} started for {} events", purge.id, matched);
+        return purge.progress();
+    }
+
+    @Override
+    public PurgeProgress getProgress(String id) {
+        return find(id).progress();
+    }
+
+    @Override
+    public List<PurgeProgress> getPurges() {
+        return purges.values().stream().map(Purge::progress)
+                .sorted((a, b) -> b.startedAt().compareTo(a.startedAt())).toList();
+    }
+
+    @Override
+    public PurgeProgress cancelPurge(String id) {
+        Purge purge = find(id);
+        purge.cancelled = true;
+        return purge.progress();
+    }
+
+    private void run(Purge purge) {
+        try {
+            Iterator<List<Integer>> idChunks = purge.request.ids() == null ? null
+                    : partition(purge.request.ids().stream().distinct().sorted().toList()).iterator();
+            Tables rangeTables = HOT;
+            while (!purge.cancelled) {
+                long start = System.currentTimeMillis();
+                List<Integer> requested = idChunks == null ? null : idChunks.hasNext() ? idChunks.next() : List.of();
+                if (requested != null && requested.isEmpty()) {
+                    break;
+                }
+                Tables tables = rangeTables;
+                Chunk chunk = transactionTemplate.execute(status -> requested != null
+                        ? deleteChunk(purge, requested, HOT).plus(deleteChunk(purge, requested, ARCHIVE))
+                        : deleteRangeChunk(purge, tables));
+                if (chunk == null) {
+                    if (rangeTables == ARCHIVE) {
+                        break;
+                    }
+                    rangeTables = ARCHIVE;
+                    continue;
+                }
+                purge.deleted += chunk.events().size();
+                purge.chunks++;
+                chunk.participants().forEach(participantScheduleIndex::evict);
+                for (EventChange change : chunk.events()) {
+                    eventDescriptionIndex.remove(change.idEvent());
+                    eventPublisher.publishEvent(change);
+                }
+                releaseStock(chunk.reserved());
+                Thread.sleep(Math.max(pauseMillis, System.currentTimeMillis() - start));
+            }
+            purge.finish(purge.cancelled ? PurgeStatus.CANCELLED : PurgeStatus.COMPLETED, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            purge.finish(PurgeStatus.CANCELLED, null);
+        } catch (RuntimeException e) {
+            log.error("Purge {} failed after {} events", purge.id, purge.deleted, e);
+            purge.finish(PurgeStatus.FAILED, e.getMessage());
+        } finally {
+            synchronized (this) {
+                running = null;
+            }
+        }
+        log.info("Purge {} {}: {} events deleted in {} chunks", purge.id, purge.status, purge.deleted, purge.chunks);
+    }
+
+    /**
+     * Picks the next chunk of the date range without locks, along the
+     * (date_debut, id_event) index, then deletes it by primary key: a locking
+     * range scan would lock every row it walks past. Null once these tables
+     * have nothing left in the range.
+     */
+    private Chunk deleteRangeChunk(Purge purge, Tables tables) {
+        List<Integer> selected = jdbcTemplate.queryForList("select id_event from " + tables.events()
+                + " where date_debut between :from and :to order by date_debut, id_event limit :limit",
+                dateRange(purge.request).addValue("limit", chunkSize), Integer.class);
+        return selected.isEmpty() ? null : deleteChunk(purge, selected, tables);
+    }
+
+    private Chunk deleteChunk(Purge purge, List<Integer> requested, Tables tables) {
+        // locking the event rows first keeps new links from being added to them
+        // meanwhile; a range purge checks again that they are still in its range
+        boolean byRange = purge.request.ids() == null;
+        MapSqlParameterSource params = (byRange ? dateRange(purge.request) : new MapSqlParameterSource())
+                .addValue("ids", requested);
+        List<EventChange> events = jdbcTemplate.query("select id_event, description, date_debut, date_fin, cout"
+                + " from " + tables.events() + " where id_event in (:ids)"
+                + (byRange ? " and date_debut between :from and :to" : "") + " order by id_event for update",
+                params, EventPurgeServiceImpl::deletedChange);
+        if (events.isEmpty()) {
+            return new Chunk(events, List.of(), Map.of());
+        }
+        MapSqlParameterSource chunk = new MapSqlParameterSource("ids",
+                events.stream().map(EventChange::idEvent).toList());
+        List<Integer> participants = jdbcTemplate.queryForList("select distinct participants_id_part from "
+                + tables.participants() + " where events_id_event in (:ids)", chunk, Integer.class);
+        Map<String, Integer> reserved = new HashMap<>();
+        jdbcTemplate.query("select l.description, l.quantite from " + tables.logistics() + " el"
+                + " join logistics l on l.id_log = el.logistics_id_log"
+                + " where el.event_id_event in (:ids) and l.reserve = true", chunk,
+                rs -> {
+                    if (rs.getString("description") != null) {
+                        reserved.merge(rs.getString("description"), rs.getInt("quantite"), Integer::sum);
+                    }
+                });
+        jdbcTemplate.update("delete from " + tables.logistics() + " where event_id_event in (:ids)", chunk);
+        jdbcTemplate.update("delete from " + tables.participants() + " where events_id_event in (:ids)", chunk);
+        jdbcTemplate.update("delete from " + tables.events() + " where id_event in (:ids)", chunk);
+        return new Chunk(events, participants, reserved);
+    }
+
+    /**
+     * Hands the stock of the deleted reservations back to the shared
+     * inventory. A failure is logged and the purge goes on: the events are
+     * already gone.
+     */
+    private void releaseStock(Map<String, Integer> reserved) {
+        for (Map.Entry<String, Integer> item : reserved.entrySet()) {
+            try {
+                if (item.getValue() > 0 && inventoryService.isTracked(item.getKey())) {
+                    inventoryService.release(item.getKey(), item.getValue());
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not release {} {} from purged events", item.getValue(), item.getKey(), e);
+            }
+        }
+    }
+
+    private static EventChange deletedChange(ResultSet rs, int rowNum) throws SQLException {
+        Date dateDebut = rs.getDate("date_debut");
+        Date dateFin = rs.getDate("date_fin");
+        return new EventChange(EventChangeType.EVENT_DELETED, rs.getInt("id_event"), rs.getString("description"),
+                dateDebut == null ? null : dateDebut.toLocalDate(), dateFin == null ? null : dateFin.toLocalDate(),
+                rs.getFloat("cout"), null, null, Instant.now());
+    }
+
+    private static MapSqlParameterSource dateRange(PurgeRequest request) {
+        return new MapSqlParameterSource("from", Date.valueOf(request.from())).addValue("to",
+                Date.valueOf(request.to()));
+    }
+
+    private List<List<Integer>> partition(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += chunkSize) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + chunkSize)));
+        }
+        return chunks;
+    }
+
+    private Purge find(String id) {
+        Purge purge = purges.get(id);
+        if (purge == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Purge not found: %s", id));
+        }
+        return purge;
+    }
+
+    private void forgetOldPurges() {
+        // called with no purge running: every kept purge is finished
+        List<Purge> oldestFirst = purges.values().stream()
+                .sorted((a, b) -> a.startedAt.compareTo(b.startedAt)).toList();
+        for (int i = 0; i <= oldestFirst.size() - KEPT_PURGES; i++) {
+            purges.remove(oldestFirst.get(i).id);
+        }
+    }
+
+    private record Tables(String events, String logistics, String participants) {
+    }
+
+    private record Chunk(List<EventChange> events, List<Integer> participants, Map<String, Integer> reserved) {
+
+        Chunk plus(Chunk other) {
+            List<EventChange> allEvents = new ArrayList<>(events);
+            allEvents.addAll(other.events);
+            List<Integer> allParticipants = new ArrayList<>(participants);
+            allParticipants.addAll(other.participants);
+            Map<String, Integer> allReserved = new HashMap<>(reserved);
+            other.reserved.forEach((description, quantite) -> allReserved.merge(description, quantite, Integer::sum));
+            return new Chunk(allEvents, allParticipants, allReserved);
+        }
+    }
+
+    private static final class Purge {
+        final String id;
+        final PurgeRequest request;
+        final long matched;
+        final Instant startedAt = Instant.now();
+        volatile PurgeStatus status = PurgeStatus.RUNNING;
+        volatile long deleted;
+        volatile int chunks;
+        volatile boolean cancelled;
+        volatile Instant finishedAt;
+        volatile String error;
+
+        Purge(String id, PurgeRequest request, long matched) {
+            this.id = id;
+            this.request = request;
+            this.matched = matched;
+        }
+
+        void finish(PurgeStatus status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        PurgeProgress progress() {
+            return new PurgeProgress(id, status, matched, deleted, chunks, startedAt, finishedAt, error);
+        }
+    }
+}
@@ -2,21 +2,42 @@ package tn.fst.eventsproject.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.fst.eventsproject.config.RetryOnConflict;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+import tn.fst.eventsproject.dto.EventCost;
+import tn.fst.eventsproject.dto.EventFilter;
+import tn.fst.eventsproject.dto.EventSummary;
+import tn.fst.eventsproject.dto.KeysetPage;
+import tn.fst.eventsproject.dto.ScheduledEvent;
+import tn.fst.eventsproject.entities.ArchivedEvent;
 import tn.fst.eventsproject.entities.Event;
 import tn.fst.eventsproject.entities.Logistics;
 import tn.fst.eventsproject.entities.Participant;
 import tn.fst.eventsproject.entities.Tache;
 import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.EventSpecifications;
 import tn.fst.eventsproject.repositories.LogisticsRepository;
 import tn.fst.eventsproject.repositories.ParticipantRepository;
+import tn.fst.eventsproject.repositories.ParticipantSpecifications;
 
+import jakarta.persistence.Tuple;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -25,20 +46,52 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 public class EventServicesImpl implements IEventServices {
 
+    private static final List<String> EVENT_FIELDS = List.of("idEvent", "description", "dateDebut", "dateFin",
+            "cout");
+
     private final EventRepository eventRepository;
     private final ParticipantRepository participantRepository;
     private final LogisticsRepository logisticsRepository;
+    private final EventDescriptionIndex eventDescriptionIndex;
+    private final ParticipantScheduleIndex participantScheduleIndex;
+    private final IInventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IEventArchiveService eventArchiveService;
+    private final TopCostEventIndex topCostEventIndex;
 
     @Override
     public Participant addParticipant(Participant participant) {
-        return participantRepository.save(participant);
+        Participant saved = participantRepository.save(participant);
+        eventPublisher.publishEvent(EventChange.participantAdded(saved.getIdPart()));
+        return saved;
     }
 
     @Override
+    @RetryOnConflict
+    @Transactional
     public Event addAffectEvenParticipant(Event event, int idParticipant) {
-        Participant participant = participantRepository.findById(idParticipant)
+        return addAffectEvenParticipant(event, idParticipant, false);
+    }
+
+    @Override
+    @RetryOnConflict
+    @Transactional
+    public Event addAffectEvenParticipant(Event sent, int idParticipant, boolean checkConflicts) {
+        // with the conflict check the participant row stays locked until the link
+        // commits, so two overlapping links cannot both pass it; plain links rely
+        // on the participant's version and are re-run when they lose
+        Participant participant = (checkConflicts ? participantRepository.findLockedByIdPart(idParticipant)
+                : participantRepository.findById(idParticipant))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         String.format("Participant not found: %d", idParticipant)));
+        Event event = managedEvent(sent);
+
+        if (checkConflicts && participantScheduleIndex.hasConflict(idParticipant, event.getDateDebut(),
+                event.getDateFin(), event.getIdEvent())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    String.format("Participant %d already has an event between %s and %s", idParticipant,
+                            event.getDateDebut(), event.getDateFin()));
+        }
 
         if (participant.getEvents() == null) {
             Set<Event> events = new HashSet<>();
@@ -57,22 +110,32 @@ public class EventServicesImpl implements IEventServices {
             event.getParticipants().add(participant);
         }
 
-        return eventRepository.save(event);
+        Event saved = indexed(eventRepository.save(event));
+        participantScheduleIndex.addOnCommit(idParticipant, saved);
+        eventPublisher.publishEvent(EventChange.of(EventChangeType.PARTICIPANT_LINKED, saved, idParticipant, null));
+        return saved;
     }
 
     @Override
-    public Event addAffectEvenParticipant(Event event) {
-        Set<Participant> participants = event.getParticipants();
+    @RetryOnConflict
+    @Transactional
+    public Event addAffectEvenParticipant(Event sent) {
+        Set<Participant> participants = sent.getParticipants();
         if (participants == null || participants.isEmpty()) {
             // nothing to link, just save event
-            return eventRepository.save(event);
+            Event saved = indexed(eventRepository.save(managedEvent(sent)));
+            eventPublisher.publishEvent(EventChange.of(EventChangeType.EVENT_CREATED, saved, null, null));
+            return saved;
         }
 
-        for (Participant aParticipant : participants) {
-            Participant participant = participantRepository.findById(aParticipant.getIdPart())
+        List<Participant> linked = new ArrayList<>();
+        for (int idPart : participants.stream().map(Participant::getIdPart).distinct().sorted().toList()) {
+            linked.add(participantRepository.findById(idPart)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
-                            String.format("Participant not found: %d", aParticipant.getIdPart())));
-
+                            String.format("Participant not found: %d", idPart))));
+        }
+        Event event = managedEvent(sent);
+        for (Participant participant : linked) {
             if (participant.getEvents() == null) {
                 Set<Event> events = new HashSet<>();
                 events.add(event);
@@ -81,20 +144,63 @@ public class EventServicesImpl implements IEventServices {
                 participant.getEvents().add(event);
             }
         }
-        return eventRepository.save(event);
+        Event saved = indexed(eventRepository.save(event));
+        eventPublisher.publishEvent(EventChange.of(EventChangeType.EVENT_CREATED, saved, null, null));
+        for (Participant participant : linked) {
+            participantScheduleIndex.addOnCommit(participant.getIdPart(), saved);
+            eventPublisher.publishEvent(EventChange.of(EventChangeType.PARTICIPANT_LINKED, saved,
+                    participant.getIdPart(), null));
+        }
+        return saved;
+    }
+
+    /**
+     * The event to link, managed by the current transaction: a new event (no
+     * id) is a fresh copy of the one sent, so that a re-run attempt does not
+     * see the id a rolled back one generated; an existing one is re-read and
+     * given the sent description and dates. Its version, cost, logistics and
+     * links stay those of the database, so a client does not have to send
+     * them back.
+     */
+    private Event managedEvent(Event sent) {
+        if (sent.getIdEvent() == 0) {
+            return new Event(0, sent.getDescription(), sent.getDateDebut(), sent.getDateFin(), sent.getCout(), null,
+                    sent.getLogistics() == null ? null : new HashSet<>(sent.getLogistics()));
+        }
+        Event event = eventRepository.findById(sent.getIdEvent())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        String.format("Event not found: %d", sent.getIdEvent())));
+        event.setDescription(sent.getDescription());
+        event.setDateDebut(sent.getDateDebut());
+        event.setDateFin(sent.getDateFin());
+        return event;
     }
 
     @Override
+    @RetryOnConflict
+    @Transactional
     public Logistics addAffectLog(Logistics logistics, String descriptionEvent) {
-        Event event = eventRepository.findFirstByDescription(descriptionEvent);
+        // the in-memory index resolves the description to a primary key, falling
+        // back to the description query when it does not know the event
+        Event event = eventDescriptionIndex.findFirstIdByDescription(descriptionEvent)
+                .flatMap(eventRepository::findById)
+                .orElseGet(() -> eventRepository.findFirstByDescription(descriptionEvent));
         if (event == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                     String.format("Event not found with description: %s", descriptionEvent));
         }
 
+        // items with a shared stock are taken from it, failing with 409 when short
+        if (logistics.isReserve() && inventoryService.isTracked(logistics.getDescription())) {
+            inventoryService.reserve(logistics.getDescription(), logistics.getQuantite());
+            releaseOnRollback(logistics.getDescription(), logistics.getQuantite());
+        }
+
         // Save logistics first to avoid TransientObjectException, then associate to
-        // event
-        Logistics saved = logisticsRepository.save(logistics);
+        // event. A fresh copy is saved on every attempt: a rolled back attempt
+        // leaves its generated id on the argument, which a retry would try to merge
+        Logistics saved = logisticsRepository.save(new Logistics(0, logistics.getDescription(),
+                logistics.isReserve(), logistics.getPrixUnit(), logistics.getQuantite()));
 
         if (event.getLogistics() == null) {
             Set<Logistics> logisticsSet = new HashSet<>();
@@ -105,6 +211,7 @@ public class EventServicesImpl implements IEventServices {
         }
 
         eventRepository.save(event);
+        eventPublisher.publishEvent(EventChange.of(EventChangeType.LOGISTICS_ADDED, event, null, saved.getIdLog()));
         return saved;
     }
 
@@ -113,29 +220,42 @@ public class EventServicesImpl implements IEventServices {
         List<Event> events = eventRepository.findByDateDebutBetween(date_debut, date_fin);
 
         List<Logistics> logisticsList = new ArrayList<>();
+        Set<Integer> hotEvents = new HashSet<>();
         for (Event event : events) {
-            if (event.getLogistics() == null || event.getLogistics().isEmpty()) {
-                continue;
-            }
-            Set<Logistics> logisticsSet = event.getLogistics();
-            for (Logistics logistics : logisticsSet) {
-                if (logistics.isReserve()) {
-                    logisticsList.add(logistics);
-                }
+            hotEvents.add(event.getIdEvent());
+            addReserved(event.getLogistics(), logisticsList);
+        }
+        // completed events may have been moved to the archive; it is only queried
+        // when the range reaches into it, and an event caught mid-move is not counted twice
+        for (ArchivedEvent archived : eventArchiveService.findArchivedEvents(date_debut, date_fin)) {
+            if (!hotEvents.contains(archived.getIdEvent())) {
+                addReserved(archived.getLogistics(), logisticsList);
             }
         }
         return logisticsList;
     }
 
+    private static void addReserved(Set<Logistics> logisticsSet, List<Logistics> logisticsList) {
+        if (logisticsSet == null || logisticsSet.isEmpty()) {
+            return;
+        }
+        for (Logistics logistics : logisticsSet) {
+            if (logistics.isReserve()) {
+                logisticsList.add(logistics);
+            }
+        }
+    }
+
     @Scheduled(cron = "*/60 * * * * *")
     @Override
     public void calculCout() {
         List<Event> events = eventRepository.findByParticipants_NomAndParticipants_PrenomAndParticipants_Tache("Tounsi",
                 "Ahmed", Tache.ORGANISATEUR);
         // eventRepository.findAll();
-        float somme = 0f;
         for (Event event : events) {
-            log.info(event.getDescription());
+            log.info("Calcul du cout de l'Event {}", event.getDescription());
+            // each event's cost is the sum of its own reserved logistics only
+            float somme = 0f;
             Set<Logistics> logisticsSet = event.getLogistics();
             if (logisticsSet != null) {
                 for (Logistics logistics : logisticsSet) {
@@ -144,11 +264,148 @@ public class EventServicesImpl implements IEventServices {
                     }
                 }
             }
-            event.setCout(somme);
-            eventRepository.save(event);
+            // only the cout column is written, and only when it changed, so a
+            // concurrent addAffectLog or participant link is never overwritten
+            if (event.getCout() != somme) {
+                event.setCout(somme);
+                eventRepository.updateCout(event.getIdEvent(), somme);
+                eventPublisher.publishEvent(EventChange.of(EventChangeType.COST_UPDATED, event, null, null));
+            }
             log.info("Cout de l'Event {} est {}", event.getDescription(), somme);
 
         }
     }
 
+    @Override
+    public List<EventSummary> searchEvents(String query, int limit) {
+        return eventDescriptionIndex.search(query, limit);
+    }
+
+    @Override
+    public KeysetPage<Participant> searchParticipants(String nom, String prenom, Tache tache, Integer afterId,
+            int size) {
+        // one extra row tells whether another page exists without a count query
+        List<Participant> rows = participantRepository.findBy(
+                ParticipantSpecifications.matching(nom, prenom, tache, afterId),
+                query -> query.sortBy(Sort.by("idPart")).limit(size + 1).all());
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<Participant> content = rows.subList(0, size);
+        return new KeysetPage<>(content, String.valueOf(content.get(size - 1).getIdPart()));
+    }
+
+    @Override
+    public List<ScheduledEvent> getParticipantSchedule(int idParticipant, LocalDate from, LocalDate to) {
+        if (!participantRepository.existsById(idParticipant)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    String.format("Participant not found: %d", idParticipant));
+        }
+        return participantScheduleIndex.overlapping(idParticipant, from, to);
+    }
+
+    @Override
+    public List<EventCost> getTopCostEvents(int limit) {
+        return topCostEventIndex.top(limit);
+    }
+
+    @Override
+    public KeysetPage<Map<String, Object>> listEvents(EventFilter filter, List<String> fields, String after,
+            int size) {
+        List<String> selected = fields == null || fields.isEmpty() ? EVENT_FIELDS : fields;
+        for (String field : selected) {
+            if (!EVENT_FIELDS.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        String.format("Unknown field: %s, expected any of %s", field, EVENT_FIELDS));
+            }
+        }
+        LocalDate afterDateDebut = null;
+        Integer afterId = null;
+        if (after != null) {
+            // cursor: dateDebut and idEvent of the last event of the previous page
+            int separator = after.lastIndexOf('_');
+            try {
+                afterDateDebut = LocalDate.parse(after.substring(0, Math.max(separator, 0)));
+                afterId = Integer.valueOf(after.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format("Invalid cursor: %s", after));
+            }
+        }
+
+        // one extra row tells whether another page exists without a count query
+        List<Tuple> rows = eventRepository.findFields(EventSpecifications.matching(filter, afterDateDebut, afterId),
+                selected, size + 1);
+        // the page cannot start before the cursor nor before the filter, so
+        // only pages that may reach back into archived dates read the archive
+        LocalDate lowest = afterDateDebut == null || (filter.from() != null && filter.from().isAfter(afterDateDebut))
+                ? filter.from() : afterDateDebut;
+        if (eventArchiveService.reachesArchive(lowest)) {
+            // archived events keep their dates and ids: the first rows of both
+            // tables, merged in (dateDebut, idEvent) order, make up the page
+            List<Tuple> archived = eventRepository.findArchivedFields(
+                    EventSpecifications.matching(filter, afterDateDebut, afterId), selected, size + 1);
+            rows = mergeInListingOrder(rows, archived, size + 1);
+        }
+        List<Map<String, Object>> content = new ArrayList<>(Math.min(rows.size(), size));
+        for (Tuple row : rows.subList(0, Math.min(rows.size(), size))) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            for (String field : selected) {
+                event.put(field, row.get(field));
+            }
+            content.add(event);
+        }
+        if (rows.size() <= size) {
+            return new KeysetPage<>(content, null);
+        }
+        Tuple last = rows.get(size - 1);
+        return new KeysetPage<>(content, last.get("dateDebut") + "_" + last.get("idEvent"));
+    }
+
+    /**
+     * The reservation has committed on its own; hands the stock back when the
+     * current transaction (including an attempt re-run by
+     * {@link RetryOnConflict}) does not commit.
+     */
+    private void releaseOnRollback(String description, int quantite) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    inventoryService.release(description, quantite);
+                }
+            }
+        });
+    }
+
+    private static List<Tuple> mergeInListingOrder(List<Tuple> hot, List<Tuple> archived, int limit) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Comparator<Tuple> order = Comparator.comparing((Tuple row) -> (LocalDate) row.get("dateDebut"))
+                .thenComparing(row -> (Integer) row.get("idEvent"));
+        List<Tuple> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(order);
+        // an event caught mid-move by the archiving job is listed once
+        List<Tuple> rows = new ArrayList<>(Math.min(merged.size(), limit));
+        for (Tuple row : merged) {
+            if (rows.size() == limit) {
+                break;
+            }
+            if (rows.isEmpty() || !rows.get(rows.size() - 1).get("idEvent").equals(row.get("idEvent"))) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private Event indexed(Event event) {
+        eventDescriptionIndex.index(event.getIdEvent(), event.getDescription());
+        return event;
+    }
+
 }
@@ -0,0 +1,10 @@
+package tn.fst.eventsproject.services;
+
+import tn.fst.eventsproject.dto.CostBreakdown;
+
+import java.time.LocalDate;
+
+public interface IEventAnalyticsService {
+    public void refresh();
+    public CostBreakdown getCostBreakdown(LocalDate from, LocalDate to);
+}
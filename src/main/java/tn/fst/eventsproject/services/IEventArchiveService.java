@@ -0,0 +1,13 @@
+package tn.fst.eventsproject.services;
+
+import tn.fst.eventsproject.entities.ArchivedEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IEventArchiveService {
+    public void archivePastEvents();
+    public int archiveEventsEndedBefore(LocalDate horizon);
+    public List<ArchivedEvent> findArchivedEvents(LocalDate date_debut, LocalDate date_fin);
+    public boolean reachesArchive(LocalDate date_debut);
+}
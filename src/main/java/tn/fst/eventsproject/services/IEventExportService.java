@@ -0,0 +1,10 @@
+package tn.fst.eventsproject.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface IEventExportService {
+    public void exportEvents(ExportFormat format, LocalDate dateDebut, LocalDate dateFin, OutputStream out)
+            throws IOException;
+}
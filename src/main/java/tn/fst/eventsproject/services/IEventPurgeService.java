@@ -0,0 +1,13 @@
+package tn.fst.eventsproject.services;
+
+import tn.fst.eventsproject.dto.PurgeProgress;
+import tn.fst.eventsproject.dto.PurgeRequest;
+
+import java.util.List;
+
+public interface IEventPurgeService {
+    public PurgeProgress startPurge(PurgeRequest request);
+    public PurgeProgress getProgress(String id);
+    public List<PurgeProgress> getPurges();
+    public PurgeProgress cancelPurge(String id);
+}
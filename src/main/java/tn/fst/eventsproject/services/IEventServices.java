@@ -1,17 +1,32 @@
 package tn.fst.eventsproject.services;
 
+import tn.fst.eventsproject.dto.EventCost;
+import tn.fst.eventsproject.dto.EventFilter;
+import tn.fst.eventsproject.dto.EventSummary;
+import tn.fst.eventsproject.dto.KeysetPage;
+import tn.fst.eventsproject.dto.ScheduledEvent;
 import tn.fst.eventsproject.entities.Event;
 import tn.fst.eventsproject.entities.Logistics;
 import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface IEventServices {
     public Participant addParticipant(Participant participant);
     public Event addAffectEvenParticipant(Event event, int idParticipant);
+    public Event addAffectEvenParticipant(Event event, int idParticipant, boolean checkConflicts);
     public Event addAffectEvenParticipant(Event event);
     public Logistics addAffectLog(Logistics logistics, String descriptionEvent);
     public List<Logistics> getLogisticsDates(LocalDate date_debut, LocalDate date_fin);
     public void calculCout();
+    public List<EventSummary> searchEvents(String query, int limit);
+    public KeysetPage<Participant> searchParticipants(String nom, String prenom, Tache tache, Integer afterId,
+            int size);
+    public List<ScheduledEvent> getParticipantSchedule(int idParticipant, LocalDate from, LocalDate to);
+    public List<EventCost> getTopCostEvents(int limit);
+    public KeysetPage<Map<String, Object>> listEvents(EventFilter filter, List<String> fields, String after,
+            int size);
 }
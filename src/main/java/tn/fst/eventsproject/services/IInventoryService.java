@@ -0,0 +1,11 @@
+package tn.fst.eventsproject.services;
+
+import tn.fst.eventsproject.dto.InventoryStock;
+
+public interface IInventoryService {
+    public InventoryStock addStock(String description, int quantite);
+    public InventoryStock getStock(String description);
+    public boolean isTracked(String description);
+    public void reserve(String description, int quantite);
+    public void release(String description, int quantite);
+}
@@ -0,0 +1,198 @@
+package tn.fst.eventsproject.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import tn.fst.eventsproject.config.RetryOnConflict;
+import tn.fst.eventsproject.dto.InventoryStock;
+import tn.fst.eventsproject.entities.InventorySlot;
+import tn.fst.eventsproject.repositories.InventorySlotRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shared stock of logistics items, spread over {@code events.inventory.slots}
+ * rows per item.
+ *
+ * <p>
+ * A reservation starts on a random slot and decrements it with a conditional
+ * UPDATE ({@code disponible >= quantite}), moving on to the next slot when it
+ * is short. Concurrent bookings of the same item therefore land on different
+ * rows, and the database guarantees no slot goes negative, with no
+ * {@code SELECT ... FOR UPDATE} on the common path. Only when no single slot
+ * can serve the request are all slots of the item locked (in id order) and
+ * drained together.
+ * </p>
+ *
+ * <p>
+ * Reservations and releases commit in their own short transaction, whatever
+ * the caller's; a caller whose own transaction may roll back after reserving
+ * is responsible for releasing the stock again.
+ * </p>
+ */
+@Slf4j
+@Service
+public class InventoryServiceImpl implements IInventoryService {
+
+    private final InventorySlotRepository inventorySlotRepository;
+    private final int slotsPerItem;
+    private final Map<String, int[]> slotIds = new ConcurrentHashMap<>();
+
+    public InventoryServiceImpl(InventorySlotRepository inventorySlotRepository,
+            @Value("${events.inventory.slots:8}") int slotsPerItem) {
+        this.inventorySlotRepository = inventorySlotRepository;
+        this.slotsPerItem = slotsPerItem;
+    }
+
+    // two first stockings of the same item can both find no slot: the one
+    // that loses on the unique key is re-run by @RetryOnConflict and then adds
+    // to the slots the other created, as does a deadlock between their gap locks
+    @Override
+    @RetryOnConflict
+    @Transactional
+    public InventoryStock addStock(String description, int quantite) {
+        requirePositive(quantite);
+        List<InventorySlot> slots = inventorySlotRepository.lockByDescription(description);
+        if (slots.isEmpty()) {
+            slots = new ArrayList<>();
+            for (int i = 0; i < slotsPerItem; i++) {
+                int share = quantite / slotsPerItem + (i < quantite % slotsPerItem ? 1 : 0);
+                slots.add(new InventorySlot(0, description, i, share));
+            }
+            try {
+                slots = inventorySlotRepository.saveAllAndFlush(slots);
+            } catch (DataIntegrityViolationException e) {
+                throw new OptimisticLockingFailureException(
+                        String.format("Stock of %s was created concurrently", description), e);
+            }
+        } else {
+            for (int i = 0; i < slots.size(); i++) {
+                int share = quantite / slots.size() + (i < quantite % slots.size() ? 1 : 0);
+                if (share > 0) {
+                    inventorySlotRepository.give(slots.get(i).getIdSlot(), share);
+                }
+            }
+        }
+        slotIds.put(description, slots.stream().mapToInt(InventorySlot::getIdSlot).toArray());
+        return getStock(description);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryStock getStock(String description) {
+        List<InventorySlot> slots = inventorySlotRepository.findByDescriptionOrderBySlot(description);
+        if (slots.isEmpty()) {
+            throw notTracked(description);
+        }
+        long disponible = slots.stream().mapToLong(InventorySlot::getDisponible).sum();
+        return new InventoryStock(description, disponible, slots.size());
+    }
+
+    @Override
+    public boolean isTracked(String description) {
+        return description != null && slots(description) != null;
+    }
+
+    // a transaction of its own, so the READ_COMMITTED isolation applies even
+    // when called from a longer transaction: it lets InnoDB drop the row locks
+    // of slots whose condition did not match, where REPEATABLE READ keeps gap
+    // and next-key locks that can deadlock near sell-out; a deadlock victim is
+    // re-run by @RetryOnConflict
+    @Override
+    @RetryOnConflict
+    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
+    public void reserve(String description, int quantite) {
+        requirePositive(quantite);
+        int[] ids = slots(description);
+        if (ids == null) {
+            throw notTracked(description);
+        }
+        int start = ThreadLocalRandom.current().nextInt(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            if (inventorySlotRepository.tryTake(ids[(start + i) % ids.length], quantite) == 1) {
+                return;
+            }
+        }
+        reserveAcrossSlots(description, quantite);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String description, int quantite) {
+        requirePositive(quantite);
+        int[] ids = slots(description);
+        if (ids == null) {
+            throw notTracked(description);
+        }
+        inventorySlotRepository.give(ids[ThreadLocalRandom.current().nextInt(ids.length)], quantite);
+    }
+
+    private void reserveAcrossSlots(String description, int quantite) {
+        // sold out is the common case here: answer it without taking any lock
+        long disponible = inventorySlotRepository.findByDescriptionOrderBySlot(description).stream()
+                .mapToLong(InventorySlot::getDisponible).sum();
+        if (disponible < quantite) {
+            throw insufficient(description, quantite, disponible);
+        }
+        List<InventorySlot> slots = inventorySlotRepository.lockByDescription(description);
+        disponible = slots.stream().mapToLong(InventorySlot::getDisponible).sum();
+        if (disponible < quantite) {
+            throw insufficient(description, quantite, disponible);
+        }
+        int remaining = quantite;
+        for (InventorySlot slot : slots) {
+            int take = Math.min(slot.getDisponible(), remaining);
+            if (take > 0) {
+                inventorySlotRepository.tryTake(slot.getIdSlot(), take);
+                remaining -= take;
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        log.info("Reserved {} {} across {} slots", quantite, description, slots.size());
+    }
+
+    private int[] slots(String description) {
+        int[] ids = slotIds.get(description);
+        if (ids != null) {
+            return ids;
+        }
+        List<InventorySlot> slots = inventorySlotRepository.findByDescriptionOrderBySlot(description);
+        if (slots.isEmpty()) {
+            return null;
+        }
+        ids = slots.stream().mapToInt(InventorySlot::getIdSlot).toArray();
+        slotIds.put(description, ids);
+        return ids;
+    }
+
+    private static void requirePositive(int quantite) {
+        if (quantite <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("Quantity must be positive: %d", quantite));
+        }
+    }
+
+    private static ResponseStatusException insufficient(String description, int quantite, long disponible) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                String.format("Insufficient stock for %s: %d requested, %d available", description, quantite,
+                        disponible));
+    }
+
+    private static ResponseStatusException notTracked(String description) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND,
+                String.format("No inventory for logistics item: %s", description));
+    }
+}
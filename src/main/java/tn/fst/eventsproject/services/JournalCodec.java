@@ -0,0 +1,115 @@
+package tn.fst.eventsproject.services;
+
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+import tn.fst.eventsproject.dto.JournalEntry;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of a change journal record:
+ *
+ * <pre>
+ * int   payload length (0 marks the end of the written part of a segment)
+ * int   CRC32C of the payload
+ * long  sequence
+ * long  timestamp (epoch millis)
+ * byte  change type (ordinal)
+ * int   idEvent, int idParticipant, int idLog (Integer.MIN_VALUE when absent)
+ * float cout
+ * long  dateDebut, long dateFin (epoch day, Long.MIN_VALUE when absent)
+ * int   description length in UTF-8 bytes (-1 when absent), then the bytes
+ * </pre>
+ */
+final class JournalCodec {
+
+    static final int HEADER_SIZE = 8;
+    private static final int FIXED_PAYLOAD_SIZE = 8 + 8 + 1 + 4 + 4 + 4 + 4 + 8 + 8 + 4;
+    private static final int NONE = Integer.MIN_VALUE;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final EventChangeType[] TYPES = EventChangeType.values();
+
+    private JournalCodec() {
+    }
+
+    static int maxRecordSize(int maxDescriptionBytes) {
+        return HEADER_SIZE + FIXED_PAYLOAD_SIZE + maxDescriptionBytes;
+    }
+
+    /**
+     * Writes header and payload of a record at the start of {@code out}, a heap
+     * buffer large enough for it.
+     *
+     * @return the record size
+     */
+    static int encode(long sequence, EventChange change, ByteBuffer out) {
+        byte[] description = change.description() == null ? null
+                : change.description().getBytes(StandardCharsets.UTF_8);
+        out.clear().position(HEADER_SIZE);
+        out.putLong(sequence);
+        out.putLong(change.at().toEpochMilli());
+        out.put((byte) change.type().ordinal());
+        out.putInt(change.idEvent());
+        out.putInt(change.idParticipant() == null ? NONE : change.idParticipant());
+        out.putInt(change.idLog() == null ? NONE : change.idLog());
+        out.putFloat(change.cout());
+        out.putLong(change.dateDebut() == null ? NO_DATE : change.dateDebut().toEpochDay());
+        out.putLong(change.dateFin() == null ? NO_DATE : change.dateFin().toEpochDay());
+        if (description == null) {
+            out.putInt(-1);
+        } else {
+            out.putInt(description.length);
+            out.put(description);
+        }
+        int length = out.position() - HEADER_SIZE;
+        CRC32C crc = new CRC32C();
+        crc.update(out.array(), out.arrayOffset() + HEADER_SIZE, length);
+        out.putInt(0, length);
+        out.putInt(4, (int) crc.getValue());
+        return HEADER_SIZE + length;
+    }
+
+    /**
+     * Reads the record starting at {@code offset}, or returns {@code null} when
+     * there is none (end of the written part, torn or corrupted write).
+     */
+    static JournalEntry decode(ByteBuffer in, int offset, int limit) {
+        if (offset + HEADER_SIZE > limit) {
+            return null;
+        }
+        int length = in.getInt(offset);
+        if (length < FIXED_PAYLOAD_SIZE || offset + HEADER_SIZE + length > limit) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(in.slice(offset + HEADER_SIZE, length));
+        if ((int) crc.getValue() != in.getInt(offset + 4)) {
+            return null;
+        }
+        ByteBuffer payload = in.slice(offset + HEADER_SIZE, length);
+        long sequence = payload.getLong();
+        Instant at = Instant.ofEpochMilli(payload.getLong());
+        EventChangeType type = TYPES[payload.get()];
+        int idEvent = payload.getInt();
+        int idParticipant = payload.getInt();
+        int idLog = payload.getInt();
+        float cout = payload.getFloat();
+        long dateDebut = payload.getLong();
+        long dateFin = payload.getLong();
+        int descriptionLength = payload.getInt();
+        String description = null;
+        if (descriptionLength >= 0) {
+            byte[] bytes = new byte[descriptionLength];
+            payload.get(bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new JournalEntry(sequence, new EventChange(type, idEvent, description,
+                dateDebut == NO_DATE ? null : LocalDate.ofEpochDay(dateDebut),
+                dateFin == NO_DATE ? null : LocalDate.ofEpochDay(dateFin), cout,
+                idParticipant == NONE ? null : idParticipant, idLog == NONE ? null : idLog, at));
+    }
+}
@@ -0,0 +1,300 @@
+package tn.fst.eventsproject.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.fst.eventsproject.dto.ScheduledEvent;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.repositories.EventRepository;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-participant sorted-interval index over the {@code dateDebut}/
+ * {@code dateFin} of the events a participant is linked to.
+ *
+ * <p>
+ * Each participant's events are kept sorted by start date along with a
+ * running maximum of end dates, so "does anything overlap [from, to]" is a
+ * binary search plus one comparison, and listing the overlaps only walks back
+ * while an earlier interval can still reach {@code from}. Schedules are loaded
+ * from the database on first use (or restored from the warm-start snapshot),
+ * replaced copy-on-write when an event is linked, and the number of cached
+ * participants is bounded.
+ * </p>
+ *
+ * <p>
+ * Links made in a transaction reach the index once it commits. Until then the
+ * participant is marked pending, and conflict checks for it read the database
+ * instead: a caller holding the participant's row lock must see a link that
+ * has just committed even if the index has not caught up yet.
+ * </p>
+ */
+@Component
+public class ParticipantScheduleIndex implements WarmStartCache {
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final EventRepository eventRepository;
+    private final int maxParticipants;
+    private final Map<Integer, Schedule> schedules = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> pending = new ConcurrentHashMap<>();
+
+    public ParticipantScheduleIndex(EventRepository eventRepository,
+            @Value("${events.schedule.max-participants:10000}") int maxParticipants) {
+        this.eventRepository = eventRepository;
+        this.maxParticipants = maxParticipants;
+    }
+
+    public List<ScheduledEvent> overlapping(int idParticipant, LocalDate from, LocalDate to) {
+        return schedule(idParticipant).overlapping(
+                from == null ? Long.MIN_VALUE : from.toEpochDay(),
+                to == null ? Long.MAX_VALUE : to.toEpochDay());
+    }
+
+    public boolean hasConflict(int idParticipant, LocalDate from, LocalDate to) {
+        return hasConflict(idParticipant, from, to, 0);
+    }
+
+    /**
+     * Whether an event of the participant other than {@code idEvent} overlaps
+     * [from, to], so that re-linking an event never conflicts with itself.
+     * Checked against the index; the database is only read when the
+     * participant is not loaded yet or has a link still committing.
+     */
+    public boolean hasConflict(int idParticipant, LocalDate from, LocalDate to, int idEvent) {
+        if (from == null) {
+            return false;
+        }
+        long start = from.toEpochDay();
+        long end = to == null ? start : to.toEpochDay();
+        Schedule schedule = pending.containsKey(idParticipant)
+                ? Schedule.of(eventRepository.findScheduleByParticipant(idParticipant))
+                : schedule(idParticipant);
+        return schedule.overlaps(start, end, idEvent);
+    }
+
+    /**
+     * Records a freshly linked event. Participants whose schedule is not
+     * cached are skipped: it will be read from the database on first use.
+     */
+    public void add(int idParticipant, Event event) {
+        add(idParticipant, entry(event));
+    }
+
+    /**
+     * Records a linked event once the current transaction commits, and
+     * nothing if it rolls back. Without a transaction it is recorded at once.
+     */
+    public void addOnCommit(int idParticipant, Event event) {
+        ScheduledEvent entry = entry(event);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(idParticipant, entry);
+            return;
+        }
+        pending.merge(idParticipant, 1, Integer::sum);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    add(idParticipant, entry);
+                }
+                pending.computeIfPresent(idParticipant, (id, count) -> count == 1 ? null : count - 1);
+            }
+        });
+    }
+
+    private void add(int idParticipant, ScheduledEvent entry) {
+        schedules.computeIfPresent(idParticipant, (id, schedule) -> schedule.with(entry));
+    }
+
+    private static ScheduledEvent entry(Event event) {
+        return new ScheduledEvent(event.getIdEvent(), event.getDescription(), event.getDateDebut(),
+                event.getDateFin());
+    }
+
+    public void evict(int idParticipant) {
+        schedules.remove(idParticipant);
+    }
+
+    public void clear() {
+        schedules.clear();
+    }
+
+    @Override
+    public String warmStartName() {
+        return "participant-schedules";
+    }
+
+    @Override
+    public void writeWarmStart(DataOutputStream out) throws IOException {
+        Map<Integer, Schedule> copy = new HashMap<>(schedules);
+        out.writeInt(copy.size());
+        for (Map.Entry<Integer, Schedule> entry : copy.entrySet()) {
+            ScheduledEvent[] events = entry.getValue().events;
+            out.writeInt(entry.getKey());
+            out.writeInt(events.length);
+            for (ScheduledEvent event : events) {
+                out.writeInt(event.idEvent());
+                WarmStartSnapshot.writeString(out, event.description());
+                out.writeLong(event.dateDebut().toEpochDay());
+                out.writeLong(event.dateFin() == null ? NO_DATE : event.dateFin().toEpochDay());
+            }
+        }
+    }
+
+    @Override
+    public void readWarmStart(ByteBuffer in) {
+        Map<Integer, Schedule> restored = new HashMap<>();
+        int participants = in.getInt();
+        for (int p = 0; p < participants; p++) {
+            int idParticipant = in.getInt();
+            List<ScheduledEvent> entries = new ArrayList<>();
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                int idEvent = in.getInt();
+                String description = WarmStartSnapshot.readString(in);
+                LocalDate dateDebut = LocalDate.ofEpochDay(in.getLong());
+                long dateFin = in.getLong();
+                entries.add(new ScheduledEvent(idEvent, description, dateDebut,
+                        dateFin == NO_DATE ? null : LocalDate.ofEpochDay(dateFin)));
+            }
+            if (restored.size() < maxParticipants) {
+                restored.put(idParticipant, Schedule.of(entries));
+            }
+        }
+        schedules.clear();
+        schedules.putAll(restored);
+    }
+
+    private Schedule schedule(int idParticipant) {
+        Schedule schedule = schedules.get(idParticipant);
+        if (schedule != null) {
+            return schedule;
+        }
+        if (schedules.size() >= maxParticipants) {
+            Iterator<Integer> keys = schedules.keySet().iterator();
+            if (keys.hasNext()) {
+                schedules.remove(keys.next());
+            }
+        }
+        return schedules.computeIfAbsent(idParticipant,
+                id -> Schedule.of(eventRepository.findScheduleByParticipant(id)));
+    }
+
+    /**
+     * Immutable schedule: events sorted by start day, with {@code maxEnd[i]}
+     * the latest end day among events {@code 0..i}.
+     */
+    static final class Schedule {
+        private static final Comparator<ScheduledEvent> BY_START = Comparator
+                .comparing(ScheduledEvent::dateDebut)
+                .thenComparingInt(ScheduledEvent::idEvent);
+
+        private final ScheduledEvent[] events;
+        private final long[] starts;
+        private final long[] maxEnd;
+
+        private Schedule(ScheduledEvent[] sorted) {
+            this.events = sorted;
+            this.starts = new long[sorted.length];
+            this.maxEnd = new long[sorted.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < sorted.length; i++) {
+                starts[i] = sorted[i].dateDebut().toEpochDay();
+                max = Math.max(max, endDay(sorted[i]));
+                maxEnd[i] = max;
+            }
+        }
+
+        static Schedule of(List<ScheduledEvent> entries) {
+            ScheduledEvent[] sorted = entries.stream()
+                    .filter(e -> e.dateDebut() != null)
+                    .sorted(BY_START)
+                    .toArray(ScheduledEvent[]::new);
+            return new Schedule(sorted);
+        }
+
+        /**
+         * This schedule with {@code entry} in it, replacing the previous
+         * entry of the same event so that changed dates are taken into
+         * account.
+         */
+        Schedule with(ScheduledEvent entry) {
+            ScheduledEvent[] others = Arrays.stream(events)
+                    .filter(existing -> existing.idEvent() != entry.idEvent())
+                    .toArray(ScheduledEvent[]::new);
+            if (entry.dateDebut() == null) {
+                return others.length == events.length ? this : new Schedule(others);
+            }
+            int position = Arrays.binarySearch(others, entry, BY_START);
+            int insertAt = position >= 0 ? position : -position - 1;
+            ScheduledEvent[] copy = new ScheduledEvent[others.length + 1];
+            System.arraycopy(others, 0, copy, 0, insertAt);
+            copy[insertAt] = entry;
+            System.arraycopy(others, insertAt, copy, insertAt + 1, others.length - insertAt);
+            return new Schedule(copy);
+        }
+
+        /**
+         * Whether an event other than {@code excludedEvent} overlaps
+         * [from, to]. The running maximum answers at once when nothing
+         * overlaps; otherwise only the overlapping events are walked.
+         */
+        boolean overlaps(long from, long to, int excludedEvent) {
+            int last = lastStartingBefore(to);
+            for (int i = last; i >= 0 && maxEnd[i] >= from; i--) {
+                if (endDay(events[i]) >= from && events[i].idEvent() != excludedEvent) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<ScheduledEvent> overlapping(long from, long to) {
+            List<ScheduledEvent> result = new ArrayList<>();
+            for (int i = lastStartingBefore(to); i >= 0 && maxEnd[i] >= from; i--) {
+                if (endDay(events[i]) >= from) {
+                    result.add(events[i]);
+                }
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        /**
+         * Index of the last event starting on or before {@code day}, -1 if none.
+         */
+        private int lastStartingBefore(long day) {
+            int low = 0;
+            int high = starts.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        private static long endDay(ScheduledEvent event) {
+            LocalDate end = event.dateFin() == null ? event.dateDebut() : event.dateFin();
+            return end.toEpochDay();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package tn.fst.eventsproject.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+import tn.fst.eventsproject.dto.EventCost;
+import tn.fst.eventsproject.repositories.EventRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The {@code events.top-cost.capacity} most expensive upcoming events (not
+ * started yet), kept in memory so that the "most expensive events" view never
+ * sorts the event table.
+ *
+ * <p>
+ * The set is loaded once the application is ready with a single query on the
+ * {@code (cout, date_debut)} index, then maintained from the published
+ * {@link EventChange}s. It always holds the exact top of the events it has
+ * seen: an event whose cost drops below the cheapest tracked one simply
+ * leaves it, as do events whose start date has passed (at read time). When
+ * that leaves fewer events than a reader asks for, while more may exist in
+ * the database, the set is reloaded.
+ * </p>
+ *
+ * <p>
+ * Readers get an immutable snapshot replaced on every change, so a read is a
+ * copy of at most {@code capacity} entries with no locking and no database
+ * access.
+ * </p>
+ */
+@Slf4j
+@Component
+public class TopCostEventIndex {
+
+    private static final Comparator<EventCost> BY_COST_DESC = Comparator.comparingDouble(EventCost::cout).reversed()
+            .thenComparingInt(EventCost::idEvent);
+
+    private final EventRepository eventRepository;
+    private final int capacity;
+
+    private final Object reloadLock = new Object();
+    private final TreeSet<EventCost> ranking = new TreeSet<>(BY_COST_DESC);
+    private final Map<Integer, EventCost> byId = new HashMap<>();
+    // true while the ranking holds every upcoming event known to the database
+    private boolean complete;
+    private List<EventChange> pendingDuringReload;
+    private volatile List<EventCost> snapshot = List.of();
+    private volatile boolean stale = true;
+
+    public TopCostEventIndex(EventRepository eventRepository,
+            @Value("${events.top-cost.capacity:100}") int capacity) {
+        this.eventRepository = eventRepository;
+        this.capacity = capacity;
+    }
+
+    public void rebuild() {
+        synchronized (reloadLock) {
+            reload();
+        }
+    }
+
+    private void reload() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            pendingDuringReload = new ArrayList<>();
+        }
+        List<EventCost> top = eventRepository.findTopByCost(LocalDate.now(), PageRequest.of(0, capacity));
+        synchronized (this) {
+            ranking.clear();
+            byId.clear();
+            for (EventCost event : top) {
+                ranking.add(event);
+                byId.put(event.idEvent(), event);
+            }
+            complete = top.size() < capacity;
+            // changes committed while the query ran may be missing from its result
+            List<EventChange> pending = pendingDuringReload;
+            pendingDuringReload = null;
+            pending.forEach(this::apply);
+            publish();
+        }
+        log.info("Top cost index rebuilt with {} events in {} ms", top.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onChange(EventChange change) {
+        if (pendingDuringReload != null) {
+            pendingDuringReload.add(change);
+        }
+        apply(change);
+        publish();
+    }
+
+    /**
+     * Most expensive upcoming events, at most {@code capacity} of them.
+     */
+    public List<EventCost> top(int limit) {
+        int wanted = Math.min(limit, capacity);
+        if (stale) {
+            rebuild();
+        }
+        List<EventCost> result = upcoming(snapshot, wanted);
+        if (result.size() < wanted && !isComplete()) {
+            rebuild();
+            result = upcoming(snapshot, wanted);
+        }
+        return result;
+    }
+
+    private static List<EventCost> upcoming(List<EventCost> ranked, int limit) {
+        LocalDate today = LocalDate.now();
+        List<EventCost> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (EventCost event : ranked) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (!event.dateDebut().isBefore(today)) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    private synchronized boolean isComplete() {
+        return complete;
+    }
+
+    private void apply(EventChange change) {
+        if (change.type() == EventChangeType.PARTICIPANT_ADDED) {
+            return;
+        }
+        EventCost event = new EventCost(change.idEvent(), change.description(), change.dateDebut(),
+                change.dateFin(), change.cout());
+        EventCost previous = byId.remove(event.idEvent());
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        if (change.type() == EventChangeType.EVENT_DELETED || event.dateDebut() == null
+                || event.dateDebut().isBefore(LocalDate.now())) {
+            return;
+        }
+        // below the cheapest tracked event, its rank is unknown unless every event is tracked
+        if (!complete && (ranking.isEmpty() || BY_COST_DESC.compare(event, ranking.last()) > 0)) {
+            return;
+        }
+        ranking.add(event);
+        byId.put(event.idEvent(), event);
+        if (ranking.size() > capacity) {
+            byId.remove(ranking.pollLast().idEvent());
+            complete = false;
+        }
+    }
+
+    private void publish() {
+        snapshot = List.copyOf(ranking);
+        stale = false;
+    }
+}
@@ -0,0 +1,31 @@
+package tn.fst.eventsproject.services;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * In-process cache saved into the warm-start snapshot on shutdown and
+ * restored from it at start-up instead of being reloaded from the database
+ * (see {@link WarmStartSnapshot}).
+ */
+public interface WarmStartCache {
+
+    /** Identifies the cache's section in the snapshot file. */
+    String warmStartName();
+
+    /**
+     * {@link DataVersion} of the database state the cache content reflects.
+     * Caches updated on every write reflect the current state; a cache
+     * refreshed periodically returns the version read at its last refresh,
+     * or -1 to be left out of the snapshot.
+     */
+    default long warmStartVersion(long currentVersion) {
+        return currentVersion;
+    }
+
+    void writeWarmStart(DataOutputStream out) throws IOException;
+
+    /** Replaces the cache content with a section written by {@link #writeWarmStart}. */
+    void readWarmStart(ByteBuffer in);
+}
@@ -0,0 +1,213 @@
+package tn.fst.eventsproject.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Binary snapshot of the {@link WarmStartCache}s on local disk, written when
+ * the application shuts down and restored by {@link CacheWarmup} at start-up
+ * so the caches do not have to be reloaded from MySQL.
+ *
+ * <p>
+ * The snapshot is written when this lifecycle stops, in a phase after the
+ * web server's graceful shutdown and stop: no request can change the caches
+ * or the data version any more while they are read.
+ * </p>
+ *
+ * <p>
+ * Each cache is a section tagged with the {@link DataVersion} its content
+ * reflects; at start-up the file is memory-mapped and only the sections whose
+ * version matches the database are restored, the other caches load as usual.
+ * The file is replaced atomically, so a crash mid-write leaves the previous
+ * one. Like the caches themselves this assumes the instance saw every write;
+ * point {@code events.snapshot.file} at a per-instance volume.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "events.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmStartSnapshot implements SmartLifecycle {
+
+    private static final int MAGIC = 0x45565753;
+    private static final int FORMAT = 1;
+    /** Stops after the web server, whose stop phase is 1024 below its graceful shutdown. */
+    static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path file;
+    private final Map<String, WarmStartCache> caches = new LinkedHashMap<>();
+    private final LongSupplier changeSequence;
+    private volatile boolean running;
+
+    @Autowired
+    public WarmStartSnapshot(DataSource dataSource,
+            @Value("${events.snapshot.file:${java.io.tmpdir}/events-warm-start.bin}") String file,
+            List<WarmStartCache> caches, ObjectProvider<ChangeJournal> changeJournal) {
+        this(dataSource, file, caches, DataVersion.changeSequence(changeJournal));
+    }
+
+    WarmStartSnapshot(DataSource dataSource, String file, List<WarmStartCache> caches, LongSupplier changeSequence) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.file = Paths.get(file);
+        this.changeSequence = changeSequence;
+        for (WarmStartCache cache : caches) {
+            this.caches.put(cache.warmStartName(), cache);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Warm-start snapshot not written, the next start will load the caches from the database", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public void write() throws IOException {
+        long start = System.currentTimeMillis();
+        long currentVersion = DataVersion.read(jdbcTemplate, changeSequence.getAsLong());
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        List<Section> sections = new ArrayList<>();
+        for (WarmStartCache cache : caches.values()) {
+            long version = cache.warmStartVersion(currentVersion);
+            if (version != -1) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (DataOutputStream sectionOut = new DataOutputStream(bytes)) {
+                    cache.writeWarmStart(sectionOut);
+                }
+                sections.add(new Section(cache.warmStartName(), version, bytes));
+            }
+        }
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(sections.size());
+            for (Section section : sections) {
+                writeString(out, section.name());
+                out.writeLong(section.version());
+                out.writeInt(section.bytes().size());
+                section.bytes().writeTo(out);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Warm-start snapshot of {} caches written to {} in {} ms", sections.size(), file,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Restores every cache whose section is still current.
+     *
+     * @return the names of the restored caches; empty when there is no
+     *         usable snapshot
+     */
+    public Set<String> restore() {
+        Set<String> restored = new HashSet<>();
+        if (!Files.isRegularFile(file)) {
+            return restored;
+        }
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT) {
+                log.warn("Ignoring warm-start snapshot {}: unknown format", file);
+                return restored;
+            }
+            long currentVersion = DataVersion.read(jdbcTemplate, changeSequence.getAsLong());
+            int sections = in.getInt();
+            for (int i = 0; i < sections; i++) {
+                String name = readString(in);
+                long version = in.getLong();
+                int length = in.getInt();
+                ByteBuffer section = in.slice(in.position(), length);
+                in.position(in.position() + length);
+                WarmStartCache cache = caches.get(name);
+                if (cache == null || version != currentVersion) {
+                    log.info("Warm-start section {} is stale, it will be loaded from the database", name);
+                    continue;
+                }
+                cache.readWarmStart(section);
+                restored.add(name);
+            }
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            log.warn("Ignoring unreadable warm-start snapshot {}", file, e);
+        }
+        log.info("Restored {} from the warm-start snapshot in {} ms", restored, System.currentTimeMillis() - start);
+        return restored;
+    }
+
+    /** Writes a length-prefixed UTF-8 string, -1 standing for null. */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Section(String name, long version, ByteArrayOutputStream bytes) {
+    }
+}
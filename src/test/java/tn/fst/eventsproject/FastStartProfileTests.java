@@ -0,0 +1,34 @@
+package tn.fst.eventsproject;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The embedded database starts empty, so the schema is created instead of validated
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("fast-start")
+class FastStartProfileTests {
+
+    @Autowired
+    ConfigurableApplicationContext context;
+
+    @Test
+    /**
+     * Given: the fast-start profile
+     * When: the context starts
+     * Then: the application's beans are created eagerly while framework
+     * beans such as the actuator endpoint mappings wait for their first use.
+     */
+    void contextLoads_withLazyFrameworkBeans() {
+        assertTrue(context.getBeanFactory().containsSingleton("eventRestController"));
+        assertTrue(context.getBeanFactory().containsSingleton("topCostEventIndex"));
+        assertFalse(context.getBeanFactory().containsSingleton("pathMappedEndpoints"));
+    }
+
+}
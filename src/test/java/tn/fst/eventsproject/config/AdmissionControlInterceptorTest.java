@@ -0,0 +1,127 @@
+package tn.fst.eventsproject.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for
+ * {@link tn.fst.eventsproject.config.AdmissionControlInterceptor} and
+ * {@link tn.fst.eventsproject.config.AdaptiveConcurrencyLimit}.
+ */
+class AdmissionControlInterceptorTest {
+
+    SimpleMeterRegistry meterRegistry;
+    AdmissionControlInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new AdmissionControlInterceptor(meterRegistry, 4, 2, 10, 0.2, 0.5, 3);
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        return request(method, "/event/getLogs/2025-01-01/2025-12-31", "/event/getLogs/{d1}/{d2}");
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+
+    @Test
+    /**
+     * Given: a limit of 4 with reads allowed half of it
+     * When: three reads arrive concurrently
+     * Then: the third is rejected with 503 and Retry-After, and the rejection
+     * is counted.
+     */
+    void preHandle_readsOverTheirShare_areRejected() throws Exception {
+        assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("GET"), rejected, null));
+        assertEquals(503, rejected.getStatus());
+        assertEquals("3", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("events.admission.rejected")
+                .tag("endpoint", "GET /event/getLogs/{d1}/{d2}").counter().count());
+        assertEquals(2.0, meterRegistry.get("events.admission.inflight").tag("endpoint", "all").gauge().value());
+    }
+
+    @Test
+    /**
+     * Given: reads already using their whole share
+     * When: a write arrives, then a read and the write complete
+     * Then: the write is admitted, and reads are admitted again once the
+     * requests in flight are back under the read share.
+     */
+    void preHandle_writesKeepHeadroom() throws Exception {
+        MockHttpServletRequest firstRead = request("GET");
+        interceptor.preHandle(firstRead, new MockHttpServletResponse(), null);
+        interceptor.preHandle(request("GET"), new MockHttpServletResponse(), null);
+
+        MockHttpServletRequest write = request("POST");
+        assertTrue(interceptor.preHandle(write, new MockHttpServletResponse(), null));
+
+        interceptor.afterCompletion(firstRead, new MockHttpServletResponse(), null, null);
+        assertFalse(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), null));
+        interceptor.afterCompletion(write, new MockHttpServletResponse(), null, null);
+        assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    /**
+     * Given: a shared limit of 4 with reads allowed half of it
+     * When: two different read endpoints take one slot each, then a third
+     * read and a write to yet another endpoint arrive
+     * Then: the read is rejected although its own endpoint is idle, and the
+     * write is admitted.
+     */
+    void preHandle_readShareIsSharedAcrossEndpoints() throws Exception {
+        assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("GET", "/event/export", "/event/export"),
+                new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("GET", "/event/participants", "/event/participants"), rejected,
+                null));
+        assertEquals(503, rejected.getStatus());
+        assertEquals(0, interceptor.endpoint(request("GET", "/event/participants", "/event/participants"))
+                .limit().getInFlight());
+
+        assertTrue(interceptor.preHandle(request("POST", "/event/addPart", "/event/addPart"),
+                new MockHttpServletResponse(), null));
+        assertEquals(3, interceptor.shared().limit().getInFlight());
+    }
+
+    @Test
+    /**
+     * Given: a saturated endpoint with stable latency
+     * When: latency suddenly gets ten times worse (requests queueing)
+     * Then: the limit grows while latency is stable and shrinks afterwards,
+     * never leaving [min, max].
+     */
+    void adaptiveLimit_followsLatencyGradient() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 2, 10, 0.5);
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire(1.0);
+            limit.release(1_000_000, limit.getLimit());
+        }
+        assertEquals(10, limit.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire(1.0);
+            limit.release(10_000_000, limit.getLimit());
+        }
+        assertTrue(limit.getLimit() < 10);
+        assertTrue(limit.getLimit() >= 2);
+    }
+
+}
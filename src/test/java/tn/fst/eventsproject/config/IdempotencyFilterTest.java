@@ -0,0 +1,192 @@
+package tn.fst.eventsproject.config;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+import tn.fst.eventsproject.controllers.EventRestController;
+import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.services.EventChangeBroadcaster;
+import tn.fst.eventsproject.services.IEventServices;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Slice (WebMvc) tests for {@link tn.fst.eventsproject.config.IdempotencyFilter}
+ * in front of {@link tn.fst.eventsproject.controllers.EventRestController},
+ * with the default in-memory store.
+ */
+@WebMvcTest(EventRestController.class)
+@Import(IdempotencyConfig.class)
+class IdempotencyFilterTest {
+
+    private static final String PAYLOAD = "{\"nom\":\"Doe\",\"prenom\":\"John\",\"tache\":\"INVITE\"}";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    IEventServices eventServices;
+
+    @MockBean
+    EventChangeBroadcaster eventChangeBroadcaster;
+
+    @Test
+    /**
+     * Given: a POST /event/addPart that succeeded with an Idempotency-Key
+     * When: the same request is sent again with that key
+     * Then: the stored response is returned and the service runs only once.
+     */
+    void retryWithSameKey_replaysStoredResponse() throws Exception {
+        when(eventServices.addParticipant(any(Participant.class))).thenReturn(saved(7));
+
+        mockMvc.perform(post("/event/addPart").header(IdempotencyFilter.HEADER, "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(PAYLOAD))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.idPart").value(7));
+        mockMvc.perform(post("/event/addPart").header(IdempotencyFilter.HEADER, "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(PAYLOAD))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.idPart").value(7));
+
+        verify(eventServices, times(1)).addParticipant(any(Participant.class));
+    }
+
+    @Test
+    /**
+     * Given: a key already used by one participant creation
+     * When: it is sent with a different body
+     * Then: 422 is returned and the service is not called again.
+     */
+    void sameKeyDifferentBody_isRejected() throws Exception {
+        when(eventServices.addParticipant(any(Participant.class))).thenReturn(saved(7));
+
+        mockMvc.perform(post("/event/addPart").header(IdempotencyFilter.HEADER, "k-2")
+                        .contentType(MediaType.APPLICATION_JSON).content(PAYLOAD))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/event/addPart").header(IdempotencyFilter.HEADER, "k-2")
+                        .contentType(MediaType.APPLICATION_JSON).content(PAYLOAD.replace("Doe", "Roe")))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(eventServices, times(1)).addParticipant(any(Participant.class));
+    }
+
+    @Test
+    /**
+     * Given: a first attempt failing with 503
+     * When: it is retried with the same key
+     * Then: the failure was not stored and the retry executes.
+     */
+    void failedAttempt_isNotStored() throws Exception {
+        when(eventServices.addParticipant(any(Participant.class)))
+                .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE))
+                .thenReturn(saved(8));
+
+        mockMvc.perform(post("/event/addPart").header(IdempotencyFilter.HEADER, "k-3")
+                        .contentType(MediaType.APPLICATION_JSON).content(PAYLOAD))
+                .andExpect(status().isServiceUnavailable());
+        mockMvc.perform(post("/event/addPart").header(IdempotencyFilter.HEADER, "k-3")
+                        .contentType(MediaType.APPLICATION_JSON).content(PAYLOAD))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andExpect(jsonPath("$.idPart").value(8));
+
+        verify(eventServices, times(2)).addParticipant(any(Participant.class));
+    }
+
+    @Test
+    /**
+     * Given: a keyed request whose body is larger than max-request-bytes
+     * When: it is posted
+     * Then: it is rejected with 413 before reaching the service.
+     */
+    void oversizedBody_isRejected() throws Exception {
+        String payload = "{\"nom\":\"" + "x".repeat(70_000) + "\"}";
+
+        mockMvc.perform(post("/event/addPart").header(IdempotencyFilter.HEADER, "k-big")
+                        .contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(status().isPayloadTooLarge());
+
+        verify(eventServices, never()).addParticipant(any(Participant.class));
+    }
+
+    @Test
+    /**
+     * Given: requests without an Idempotency-Key
+     * When: the same payload is posted twice
+     * Then: both reach the service, as before.
+     */
+    void withoutKey_requestsAreNotDeduplicated() throws Exception {
+        when(eventServices.addParticipant(any(Participant.class))).thenReturn(saved(9));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/event/addPart").contentType(MediaType.APPLICATION_JSON).content(PAYLOAD))
+                    .andExpect(status().isOk());
+        }
+
+        verify(eventServices, times(2)).addParticipant(any(Participant.class));
+    }
+
+    @Test
+    /**
+     * Given: a request body cached by the filter
+     * When: a non-blocking reader registers a read listener
+     * Then: it is told the data is available, reads the whole body, and is
+     * then told all data has been read.
+     */
+    void cachedBody_readListener_readsWholeBody() throws Exception {
+        ServletInputStream in = new IdempotencyFilter.CachedBodyRequest(new MockHttpServletRequest(),
+                PAYLOAD.getBytes(StandardCharsets.UTF_8)).getInputStream();
+        List<String> calls = new ArrayList<>();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+
+        assertEquals(List.of(PAYLOAD, "done"), calls);
+    }
+
+    private static Participant saved(int id) {
+        Participant participant = new Participant();
+        participant.setIdPart(id);
+        participant.setNom("Doe");
+        participant.setPrenom("John");
+        return participant;
+    }
+}
@@ -0,0 +1,142 @@
+package tn.fst.eventsproject.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link tn.fst.eventsproject.config.IdempotencyStore}
+ * implementations; the JDBC one runs against the embedded H2 schema
+ * generated by Hibernate.
+ */
+@DataJpaTest
+class IdempotencyStoreTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    /**
+     * Given: a key reserved then completed in the JDBC store
+     * When: it is reserved again before and after its expiry
+     * Then: the stored response comes back first, then the key is free again.
+     */
+    void jdbcStore_reserveCompleteAndExpire() {
+        JdbcIdempotencyStore store = new JdbcIdempotencyStore(dataSource);
+
+        assertNull(store.reserve("k", "fp", "o1", 1_000, 2_000));
+        IdempotencyRecord busy = store.reserve("k", "fp", "o2", 1_500, 2_500);
+        assertNotNull(busy);
+        assertFalse(busy.completed());
+
+        store.complete("k", "o1", new IdempotencyRecord("fp", 200, "application/json",
+                "{}".getBytes(StandardCharsets.UTF_8), 10_000));
+        IdempotencyRecord stored = store.reserve("k", "fp", "o3", 3_000, 4_000);
+        assertEquals(200, stored.status());
+        assertEquals("{}", new String(stored.body(), StandardCharsets.UTF_8));
+
+        assertNull(store.reserve("k", "other", "o4", 10_000, 11_000));
+    }
+
+    @Test
+    /**
+     * Given: a reservation in the JDBC store that is released
+     * When: the key is reserved again
+     * Then: the new request owns it.
+     */
+    void jdbcStore_releaseFreesKey() {
+        JdbcIdempotencyStore store = new JdbcIdempotencyStore(dataSource);
+
+        assertNull(store.reserve("r", "fp", "o1", 1_000, 2_000));
+        store.release("r", "o1");
+
+        assertNull(store.reserve("r", "fp", "o2", 1_100, 2_100));
+    }
+
+    @Test
+    /**
+     * Given: a JDBC reservation whose lease expired and was taken over by a
+     * second request
+     * When: the first request completes, then releases the key
+     * Then: neither call touches the second request's reservation, which it
+     * then completes itself.
+     */
+    void jdbcStore_staleOwnerCannotCompleteOrRelease() {
+        assertStaleOwnerIgnored(new JdbcIdempotencyStore(dataSource), "s");
+    }
+
+    @Test
+    /**
+     * Given: an in-memory reservation whose lease expired and was taken over
+     * by a second request
+     * When: the first request completes, then releases the key
+     * Then: neither call touches the second request's reservation.
+     */
+    void inMemoryStore_staleOwnerCannotCompleteOrRelease() {
+        assertStaleOwnerIgnored(new InMemoryIdempotencyStore(10), "s");
+    }
+
+    @Test
+    /**
+     * Given: an in-memory store bounded to two keys
+     * When: a third key is reserved
+     * Then: the oldest key is evicted.
+     */
+    void inMemoryStore_evictsOldestBeyondCapacity() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2);
+
+        store.reserve("a", "fp", "oa", 0, 1_000);
+        store.complete("a", "oa", completed(5_000));
+        store.reserve("b", "fp", "ob", 0, 1_000);
+        store.complete("b", "ob", completed(5_000));
+        store.reserve("c", "fp", "oc", 0, 1_000);
+
+        assertEquals(2, store.size());
+        assertNull(store.reserve("a", "fp", "oa2", 0, 1_000));
+        assertNotNull(store.reserve("c", "fp", "oc2", 0, 1_000));
+    }
+
+    @Test
+    /**
+     * Given: an in-memory store bounded to two keys, both in progress
+     * When: a third key is reserved
+     * Then: nothing is evicted and the first two keys are still busy.
+     */
+    void inMemoryStore_keepsInProgressKeysBeyondCapacity() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2);
+
+        store.reserve("a", "fp", "oa", 0, 1_000);
+        store.reserve("b", "fp", "ob", 0, 1_000);
+        store.reserve("c", "fp", "oc", 0, 1_000);
+
+        assertEquals(3, store.size());
+        assertNotNull(store.reserve("a", "fp", "oa2", 0, 1_000));
+        assertNotNull(store.reserve("b", "fp", "ob2", 0, 1_000));
+    }
+
+    private static void assertStaleOwnerIgnored(IdempotencyStore store, String key) {
+        assertNull(store.reserve(key, "fp", "first", 1_000, 2_000));
+        assertNull(store.reserve(key, "fp", "second", 2_500, 3_500));
+
+        store.complete(key, "first", completed(10_000));
+        IdempotencyRecord busy = store.reserve(key, "fp", "third", 3_000, 4_000);
+        assertNotNull(busy);
+        assertFalse(busy.completed());
+
+        store.release(key, "first");
+        assertNotNull(store.reserve(key, "fp", "third", 3_000, 4_000));
+
+        store.complete(key, "second", completed(10_000));
+        assertTrue(store.reserve(key, "fp", "third", 3_000, 4_000).completed());
+    }
+
+    private static IdempotencyRecord completed(long expiresAt) {
+        return new IdempotencyRecord("fp", 200, "application/json", "{}".getBytes(StandardCharsets.UTF_8),
+                expiresAt);
+    }
+}
@@ -0,0 +1,112 @@
+package tn.fst.eventsproject.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Throughput of the hot-path log lines (one per service call, as written by
+ * {@link PerformanceAspect}) under the default synchronous appender and under
+ * the {@code async-logging} mode. Skipped by default, run with:
+ *
+ * <pre>
+ * ./mvnw test -Dtest=LoggingThroughputBenchmark -Dbenchmark=true
+ * </pre>
+ *
+ * <p>
+ * Each scenario has 8 threads logging through a pattern layout into a file
+ * flushed on every event, which is what a container console costs. The
+ * printed figure is application-side throughput: how many calls per second
+ * the request threads can make while logging.
+ * </p>
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoggingThroughputBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int MESSAGES_PER_THREAD = 100_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void compareLoggingModes() throws Exception {
+        run("sync console", false, false);
+        run("async", true, false);
+        run("async + sampling", true, true);
+    }
+
+    private void run(String name, boolean async, boolean sampled) throws Exception {
+        LoggerContext context = new LoggerContext();
+        Appender<ILoggingEvent> appender = fileAppender(context, dir.resolve(name.replace(' ', '_') + ".log"));
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(appender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        if (sampled) {
+            RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+            filter.setLoggerPrefix("tn.fst.eventsproject");
+            filter.setContext(context);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        Logger logger = context.getLogger(PerformanceAspect.class);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < MESSAGES_PER_THREAD; i++) {
+                    logger.info("{} Method execution time: {} milliseconds.", "addAffectLog", i % 50);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        context.stop();
+
+        double perSecond = THREADS * (double) MESSAGES_PER_THREAD / (elapsed / 1e9);
+        System.out.printf("%-18s %,12.0f calls/s (%d ms)%n", name, perSecond, elapsed / 1_000_000);
+    }
+
+    private static FileAppender<ILoggingEvent> fileAppender(LoggerContext context, Path file) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} - %-5level - %logger{45} - %msg %n");
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(file.toString());
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(true);
+        appender.start();
+        return appender;
+    }
+
+}
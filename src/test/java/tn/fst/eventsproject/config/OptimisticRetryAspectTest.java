@@ -0,0 +1,123 @@
+package tn.fst.eventsproject.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link tn.fst.eventsproject.config.OptimisticRetryAspect} applied
+ * through an AspectJ proxy to a stub whose first calls lose the race.
+ */
+class OptimisticRetryAspectTest {
+
+    MeterRegistry meterRegistry;
+    Writer writer;
+    Writer proxy;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(org.mockito.ArgumentMatchers.any())).thenReturn(meterRegistry);
+        writer = new Writer();
+        AspectJProxyFactory factory = new AspectJProxyFactory(writer);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new OptimisticRetryAspect(provider, 3, 0));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    /**
+     * Given: a method losing two optimistic locking races
+     * When: it is called with three attempts allowed
+     * Then: the third attempt's result is returned and conflicts and retries
+     * are counted.
+     */
+    void retry_succeedsWithinAttempts() {
+        writer.failures = 2;
+
+        assertEquals("done", proxy.write());
+
+        assertEquals(3, writer.calls.get());
+        assertEquals(2, meterRegistry.counter("events.locking.conflicts", "method", "write").count());
+        assertEquals(2, meterRegistry.counter("events.locking.retries", "method", "write").count());
+    }
+
+    @Test
+    /**
+     * Given: a method whose first transaction is picked as a deadlock victim
+     * When: it is called
+     * Then: it is re-run and the second attempt's result is returned.
+     */
+    void retry_deadlockVictim_isRetried() {
+        writer.failures = 1;
+        writer.deadlock = true;
+
+        assertEquals("done", proxy.write());
+
+        assertEquals(2, writer.calls.get());
+        assertEquals(1, meterRegistry.counter("events.locking.retries", "method", "write").count());
+    }
+
+    @Test
+    /**
+     * Given: a method that keeps losing
+     * When: it is called
+     * Then: it runs three times and the caller gets 409.
+     */
+    void retry_exhausted_returnsConflict() {
+        writer.failures = 10;
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> proxy.write());
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        assertEquals(3, writer.calls.get());
+        assertEquals(1, meterRegistry.counter("events.locking.exhausted", "method", "write").count());
+    }
+
+    @Test
+    /**
+     * Given: a method without the annotation
+     * When: it loses a race
+     * Then: the failure is not retried.
+     */
+    void unannotatedMethod_isNotRetried() {
+        writer.failures = 1;
+
+        assertThrows(OptimisticLockingFailureException.class, () -> proxy.writeOnce());
+        assertEquals(1, writer.calls.get());
+    }
+
+    static class Writer {
+        final AtomicInteger calls = new AtomicInteger();
+        int failures;
+        boolean deadlock;
+
+        @RetryOnConflict
+        public String write() {
+            return writeOnce();
+        }
+
+        public String writeOnce() {
+            if (calls.incrementAndGet() <= failures) {
+                throw deadlock ? new CannotAcquireLockException("deadlock")
+                        : new OptimisticLockingFailureException("stale");
+            }
+            return "done";
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package tn.fst.eventsproject.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link tn.fst.eventsproject.config.RateLimitingTurboFilter}
+ * on a standalone logback context.
+ */
+class RateLimitingTurboFilterTest {
+
+    LoggerContext context;
+    RateLimitingTurboFilter filter;
+    ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        filter = new RateLimitingTurboFilter();
+        filter.setLoggerPrefix("tn.fst.eventsproject");
+        filter.setMaxPerSecond(5);
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+    }
+
+    @Test
+    /**
+     * Given: a limit of 5 messages per second and pattern
+     * When: one pattern is logged 100 times within the same second
+     * Then: at most 5 (10 if the second rolls over) get through, other
+     * patterns and warnings are unaffected.
+     */
+    void decide_capsEachPatternPerSecond() {
+        Logger logger = context.getLogger("tn.fst.eventsproject.services.EventServicesImpl");
+        for (int i = 0; i < 100; i++) {
+            logger.info("Cout de l'Event {} est {}", i, 1f);
+        }
+        long sampled = appender.list.size();
+        assertTrue(sampled >= 5 && sampled <= 10, "sampled " + sampled);
+
+        logger.info("Other pattern {}", 1);
+        logger.warn("Cout de l'Event {} est {}", 0, 1f);
+        assertEquals(sampled + 2, appender.list.size());
+        assertEquals(100 - sampled, filter.getSuppressedCount());
+    }
+
+    @Test
+    /**
+     * Given: a logger outside the configured prefix
+     * When: it logs repeatedly
+     * Then: nothing is suppressed.
+     */
+    void decide_ignoresOtherLoggers() {
+        Logger logger = context.getLogger("org.hibernate.SQL");
+        for (int i = 0; i < 50; i++) {
+            logger.info("select 1");
+        }
+        assertEquals(50, appender.list.size());
+    }
+
+}
@@ -0,0 +1,59 @@
+package tn.fst.eventsproject.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import tn.fst.eventsproject.dto.CostBreakdown;
+import tn.fst.eventsproject.dto.MonthlyCost;
+import tn.fst.eventsproject.dto.RoleCost;
+import tn.fst.eventsproject.entities.Tache;
+import tn.fst.eventsproject.services.IEventAnalyticsService;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Slice (WebMvc) tests for
+ * {@link tn.fst.eventsproject.controllers.EventAnalyticsController}.
+ */
+@WebMvcTest(EventAnalyticsController.class)
+class EventAnalyticsControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    IEventAnalyticsService eventAnalyticsService;
+
+    @Test
+    /**
+     * Given: a breakdown for events starting from March 2025
+     * When: GET /event/analytics/cost?from=2025-03-01 is invoked
+     * Then: roles are keyed by tache name and months are rendered as yyyy-MM.
+     */
+    void getCostBreakdown_returnsBreakdownJson() throws Exception {
+        CostBreakdown breakdown = new CostBreakdown(Instant.parse("2025-03-15T10:00:00Z"), 1, 150.0,
+                Map.of(Tache.ORGANISATEUR, new RoleCost(1, 150.0)),
+                List.of(new MonthlyCost(YearMonth.of(2025, 3), 1, 150.0, Map.of(Tache.ORGANISATEUR, 150.0))));
+        when(eventAnalyticsService.getCostBreakdown(eq(LocalDate.of(2025, 3, 1)), isNull())).thenReturn(breakdown);
+
+        mockMvc.perform(get("/event/analytics/cost").param("from", "2025-03-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events").value(1))
+                .andExpect(jsonPath("$.byTache.ORGANISATEUR.cout").value(150.0))
+                .andExpect(jsonPath("$.byMonth[0].month").value("2025-03"))
+                .andExpect(jsonPath("$.byMonth[0].coutByTache.ORGANISATEUR").value(150.0));
+    }
+}
@@ -0,0 +1,75 @@
+package tn.fst.eventsproject.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tn.fst.eventsproject.services.ExportFormat;
+import tn.fst.eventsproject.services.IEventExportService;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Slice (WebMvc) tests for
+ * {@link tn.fst.eventsproject.controllers.EventExportController}.
+ */
+@WebMvcTest(EventExportController.class)
+class EventExportControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    IEventExportService eventExportService;
+
+    @Test
+    /**
+     * Given: an export service writing a single ndjson line
+     * When: GET /event/export?format=ndjson&from=... is invoked
+     * Then: the body is streamed asynchronously with the ndjson content type.
+     */
+    void exportEvents_streamsServiceOutput() throws Exception {
+        doAnswer(i -> {
+            OutputStream out = i.getArgument(3);
+            out.write("{\"idEvent\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(eventExportService).exportEvents(eq(ExportFormat.NDJSON), eq(LocalDate.of(2025, 1, 1)), isNull(),
+                any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/event/export").param("format", "ndjson").param("from", "2025-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string("{\"idEvent\":1}\n"));
+    }
+
+    @Test
+    /**
+     * Given: an unknown export format
+     * When: GET /event/export?format=xml is invoked
+     * Then: HTTP 400 is returned.
+     */
+    void exportEvents_unknownFormat_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/event/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+}
@@ -0,0 +1,73 @@
+package tn.fst.eventsproject.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+import tn.fst.eventsproject.dto.PurgeProgress;
+import tn.fst.eventsproject.dto.PurgeRequest;
+import tn.fst.eventsproject.dto.PurgeStatus;
+import tn.fst.eventsproject.services.IEventPurgeService;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Slice (WebMvc) tests for
+ * {@link tn.fst.eventsproject.controllers.EventPurgeController}.
+ */
+@WebMvcTest(EventPurgeController.class)
+class EventPurgeControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    IEventPurgeService eventPurgeService;
+
+    @Test
+    /**
+     * Given: a date range to purge
+     * When: POST /admin/purges is invoked
+     * Then: 202 is returned with the progress of the started purge.
+     */
+    void startPurge_returnsAccepted() throws Exception {
+        PurgeRequest request = new PurgeRequest(null, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+        PurgeProgress progress = new PurgeProgress("p1", PurgeStatus.RUNNING, 120, 0, 0, Instant.now(), null,
+                null);
+        when(eventPurgeService.startPurge(request)).thenReturn(progress);
+
+        mockMvc.perform(post("/admin/purges").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"from\":\"2025-03-01\",\"to\":\"2025-03-31\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(content().json(objectMapper.writeValueAsString(progress)));
+    }
+
+    @Test
+    /**
+     * Given: an unknown purge id
+     * When: GET /admin/purges/{id} is invoked
+     * Then: the 404 raised by the service is returned.
+     */
+    void getProgress_unknownPurge_returnsNotFound() throws Exception {
+        when(eventPurgeService.getProgress("nope")).thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        mockMvc.perform(get("/admin/purges/nope"))
+                .andExpect(status().isNotFound());
+    }
+
+}
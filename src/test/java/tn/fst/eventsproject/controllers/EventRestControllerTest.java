@@ -7,21 +7,34 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import tn.fst.eventsproject.dto.EventCost;
+import tn.fst.eventsproject.dto.EventFilter;
+import tn.fst.eventsproject.dto.EventSummary;
+import tn.fst.eventsproject.dto.KeysetPage;
+import tn.fst.eventsproject.dto.ScheduledEvent;
 import tn.fst.eventsproject.entities.Event;
 import tn.fst.eventsproject.entities.Logistics;
 import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.fst.eventsproject.services.EventChangeBroadcaster;
 import tn.fst.eventsproject.services.IEventServices;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -46,6 +59,9 @@ class EventRestControllerTest {
     @MockBean
     IEventServices eventServices;
 
+    @MockBean
+    EventChangeBroadcaster eventChangeBroadcaster;
+
     @Test
     /**
      * Given: a Participant payload
@@ -86,7 +102,7 @@ class EventRestControllerTest {
         savedEvent.setIdEvent(1);
         savedEvent.setDescription("Workshop");
 
-        when(eventServices.addAffectEvenParticipant(any(Event.class), anyInt())).thenReturn(savedEvent);
+        when(eventServices.addAffectEvenParticipant(any(Event.class), anyInt(), anyBoolean())).thenReturn(savedEvent);
 
         mockMvc.perform(post("/event/addEvent/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -176,4 +192,128 @@ class EventRestControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(logisticsList)));
     }
 
+    @Test
+    /**
+     * Given: an event id filter
+     * When: GET /event/changes?idEvent=4 is invoked
+     * Then: an SSE subscription is opened for that event.
+     */
+    void subscribeChanges_opensEventStream() throws Exception {
+        when(eventChangeBroadcaster.subscribe(4, null, null)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/event/changes").param("idEvent", "4"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    /**
+     * Given: a search query with an out-of-range limit
+     * When: GET /event/search?q=work&limit=500 is invoked
+     * Then: the limit is capped to 100 and the matching events are returned.
+     */
+    void searchEvents_capsLimitAndReturnsHits() throws Exception {
+        List<EventSummary> hits = List.of(new EventSummary(1, "Workshop"), new EventSummary(4, "Team work"));
+
+        when(eventServices.searchEvents(eq("work"), eq(100))).thenReturn(hits);
+
+        mockMvc.perform(get("/event/search").param("q", "work").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(hits)));
+    }
+
+    @Test
+    /**
+     * Given: a cost filter, a field list and a cursor
+     * When: GET /event/events is invoked
+     * Then: they are forwarded to the service and its page is returned.
+     */
+    void listEvents_forwardsFiltersAndFields() throws Exception {
+        KeysetPage<Map<String, Object>> page = new KeysetPage<>(
+                List.of(Map.of("idEvent", 7, "cout", 900.0)), "2025-03-01_7");
+
+        when(eventServices.listEvents(eq(new EventFilter(null, null, 500f, null)), eq(List.of("idEvent", "cout")),
+                eq("2025-02-01_3"), eq(20))).thenReturn(page);
+
+        mockMvc.perform(get("/event/events").param("minCout", "500").param("fields", "idEvent,cout")
+                .param("after", "2025-02-01_3"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    /**
+     * Given: the in-memory ranking of upcoming events
+     * When: GET /event/top-cost is invoked without a limit
+     * Then: the 10 most expensive events are requested and returned.
+     */
+    void getTopCostEvents_defaultsToTen() throws Exception {
+        List<EventCost> top = List.of(new EventCost(4, "Gala", LocalDate.of(2030, 6, 1), LocalDate.of(2030, 6, 2),
+                1500f));
+
+        when(eventServices.getTopCostEvents(10)).thenReturn(top);
+
+        mockMvc.perform(get("/event/top-cost"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(top)));
+    }
+
+    @Test
+    /**
+     * Given: a role filter and a cursor from a previous page
+     * When: GET /event/participants?tache=ORGANISATEUR&after=10 is invoked
+     * Then: the page returned by the service is serialized with its cursor.
+     */
+    void searchParticipants_returnsKeysetPage() throws Exception {
+        Participant participant = new Participant();
+        participant.setIdPart(12);
+        participant.setNom("Tounsi");
+        participant.setTache(Tache.ORGANISATEUR);
+        KeysetPage<Participant> page = new KeysetPage<>(List.of(participant), "12");
+
+        when(eventServices.searchParticipants(isNull(), isNull(), eq(Tache.ORGANISATEUR), eq(10), eq(20)))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/event/participants").param("tache", "ORGANISATEUR").param("after", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    /**
+     * Given: an event payload and checkConflicts=true
+     * When: POST /event/addEvent/{id}?checkConflicts=true is invoked
+     * Then: the conflict check flag is forwarded to the service.
+     */
+    void addEventWithParticipantId_forwardsConflictCheck() throws Exception {
+        Event event = new Event();
+        event.setDescription("Workshop");
+
+        when(eventServices.addAffectEvenParticipant(any(Event.class), eq(3), eq(true))).thenReturn(event);
+
+        mockMvc.perform(post("/event/addEvent/3").param("checkConflicts", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(event)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(event)));
+    }
+
+    @Test
+    /**
+     * Given: a participant id and a date range
+     * When: GET /event/participants/{id}/schedule is invoked
+     * Then: the overlapping events returned by the service are serialized.
+     */
+    void getParticipantSchedule_returnsOverlappingEvents() throws Exception {
+        List<ScheduledEvent> schedule = List.of(
+                new ScheduledEvent(5, "Workshop", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 2)));
+
+        when(eventServices.getParticipantSchedule(7, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30)))
+                .thenReturn(schedule);
+
+        mockMvc.perform(get("/event/participants/7/schedule").param("from", "2025-01-01").param("to", "2025-06-30"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(schedule)));
+    }
+
 }
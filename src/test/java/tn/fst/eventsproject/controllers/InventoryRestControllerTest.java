@@ -0,0 +1,66 @@
+package tn.fst.eventsproject.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+import tn.fst.eventsproject.dto.InventoryStock;
+import tn.fst.eventsproject.services.IInventoryService;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Slice (WebMvc) tests for
+ * {@link tn.fst.eventsproject.controllers.InventoryRestController}.
+ */
+@WebMvcTest(InventoryRestController.class)
+class InventoryRestControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    IInventoryService inventoryService;
+
+    @Test
+    /**
+     * Given: a logistics item description and a quantity
+     * When: POST /inventory/{description}?quantite=20 is invoked
+     * Then: the resulting stock is returned.
+     */
+    void addStock_returnsStock() throws Exception {
+        InventoryStock stock = new InventoryStock("Projector", 20, 8);
+        when(inventoryService.addStock("Projector", 20)).thenReturn(stock);
+
+        mockMvc.perform(post("/inventory/Projector").param("quantite", "20"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(stock)));
+    }
+
+    @Test
+    /**
+     * Given: a reservation the stock cannot serve
+     * When: POST /inventory/{description}/reserve is invoked
+     * Then: the 409 raised by the service is returned.
+     */
+    void reserve_insufficientStock_returnsConflict() throws Exception {
+        doThrow(new ResponseStatusException(HttpStatus.CONFLICT)).when(inventoryService).reserve("Projector", 5);
+
+        mockMvc.perform(post("/inventory/Projector/reserve").param("quantite", "5"))
+                .andExpect(status().isConflict());
+        verify(inventoryService).reserve("Projector", 5);
+    }
+
+}
@@ -0,0 +1,202 @@
+package tn.fst.eventsproject.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+import tn.fst.eventsproject.dto.JournalEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link tn.fst.eventsproject.services.ChangeJournal} on temporary
+ * segment files of 1 KiB (about 12 records each).
+ */
+class ChangeJournalTest {
+
+    static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path dir;
+
+    ChangeJournal journal;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private ChangeJournal open(int retainedSegments) throws IOException {
+        journal = new ChangeJournal(dir, SEGMENT_SIZE, retainedSegments, 50, meterRegistry);
+        return journal;
+    }
+
+    private static EventChange costUpdated(int idEvent, float cout) {
+        return new EventChange(EventChangeType.COST_UPDATED, idEvent, "Gala " + idEvent, LocalDate.of(2025, 6, 1),
+                LocalDate.of(2025, 6, 2), cout, null, null, Instant.ofEpochMilli(1_700_000_000_000L));
+    }
+
+    @Test
+    /**
+     * Given: an empty journal
+     * When: a cost update and a new participant are appended
+     * Then: a reader returns both changes unchanged with consecutive sequence
+     * numbers, and nothing more on the next poll.
+     */
+    void append_thenPoll_roundTripsChanges() throws IOException {
+        open(8);
+        EventChange cost = costUpdated(4, 1500f);
+        EventChange participant = new EventChange(EventChangeType.PARTICIPANT_ADDED, 0, null, null, null, 0f, 9,
+                null, Instant.ofEpochMilli(1_700_000_000_001L));
+
+        assertEquals(1, journal.append(cost));
+        assertEquals(2, journal.append(participant));
+
+        ChangeJournalReader reader = journal.openReader(1);
+        assertEquals(List.of(new JournalEntry(1, cost), new JournalEntry(2, participant)), reader.poll(10));
+        assertTrue(reader.poll(10).isEmpty());
+        assertEquals(3, reader.getNextSequence());
+    }
+
+    @Test
+    /**
+     * Given: a journal keeping 3 segments
+     * When: 100 changes are appended
+     * Then: segments roll, only the 3 newest remain, and a reader asked for
+     * sequence 1 starts at the oldest retained change and follows the rolls
+     * to the last one.
+     */
+    void append_rollsSegmentsAndAppliesRetention() throws IOException {
+        open(3);
+        for (int i = 1; i <= 100; i++) {
+            journal.append(costUpdated(i, i));
+        }
+
+        assertEquals(3, journal.getSegmentCount());
+        assertEquals(3, Files.list(dir).filter(f -> f.toString().endsWith(".journal")).count());
+        List<JournalEntry> entries = journal.openReader(1).poll(1000);
+        assertEquals(journal.getFirstSequence(), entries.get(0).sequence());
+        assertEquals(100, entries.get(entries.size() - 1).sequence());
+        assertEquals(100 - journal.getFirstSequence() + 1, entries.size());
+    }
+
+    @Test
+    /**
+     * Given: a journal closed after 20 changes, whose last record was then
+     * partly overwritten (torn write)
+     * When: the journal is reopened and a new change appended
+     * Then: the damaged record is dropped and sequence numbers continue after
+     * the last valid one.
+     */
+    void reopen_recoversAfterLastValidRecord() throws IOException {
+        open(8);
+        for (int i = 1; i <= 20; i++) {
+            journal.append(costUpdated(i, i));
+        }
+        journal.close();
+        journal = null;
+
+        Path last;
+        try (var files = Files.list(dir)) {
+            last = files.filter(f -> f.toString().endsWith(".journal")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        ChangeJournal probe = new ChangeJournal(dir, SEGMENT_SIZE, 8, 50, meterRegistry);
+        ChangeJournalReader reader = probe.openReader(20);
+        JournalEntry twentieth = reader.poll(1).get(0);
+        probe.close();
+        int offset = locate(last, twentieth.sequence());
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 }), offset + 20);
+        }
+
+        open(8);
+        assertEquals(19, journal.getLastSequence());
+        assertEquals(20, journal.append(costUpdated(21, 21f)));
+        List<JournalEntry> entries = journal.openReader(19).poll(10);
+        assertEquals(List.of(19L, 20L), entries.stream().map(JournalEntry::sequence).toList());
+        assertEquals(21, entries.get(1).change().idEvent());
+    }
+
+    @Test
+    /**
+     * Given: a subscription from the start of the journal
+     * When: changes are appended before and after subscribing
+     * Then: the subscriber receives all of them in order.
+     */
+    void subscribe_deliversHistoryThenNewChanges() throws Exception {
+        open(8);
+        journal.append(costUpdated(1, 10f));
+        List<Long> received = new CopyOnWriteArrayList<>();
+
+        try (ChangeJournal.Subscription subscription = journal.subscribe(journal.getFirstSequence(),
+                entry -> received.add(entry.sequence()))) {
+            journal.append(costUpdated(2, 20f));
+            journal.append(costUpdated(3, 30f));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (received.size() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(List.of(1L, 2L, 3L), received);
+            assertEquals(4, subscription.getPosition());
+        }
+    }
+
+    @Test
+    /**
+     * Given: an open journal
+     * When: a second journal is opened on the same directory
+     * Then: it is refused.
+     */
+    void open_refusesDirectoryInUse() throws IOException {
+        open(8);
+        assertThrows(IllegalStateException.class, () -> new ChangeJournal(dir, SEGMENT_SIZE, 8, 50, meterRegistry));
+    }
+
+    private static int locate(Path segment, long sequence) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int offset = 0;
+        while (buffer.getLong(offset + JournalCodec.HEADER_SIZE) != sequence) {
+            offset += JournalCodec.HEADER_SIZE + buffer.getInt(offset);
+        }
+        return offset;
+    }
+
+    @Test
+    /**
+     * Given: a committed change too large for a journal segment
+     * When: it is delivered to the journal's change listener
+     * Then: the failure is counted and logged instead of being thrown back
+     * to the request that made the change, and later changes are journaled.
+     */
+    void onChange_appendFailure_isCountedNotThrown() throws IOException {
+        open(8);
+        EventChange huge = new EventChange(EventChangeType.EVENT_CREATED, 1, "x".repeat(SEGMENT_SIZE), null, null,
+                0f, null, null, Instant.ofEpochMilli(1_700_000_000_000L));
+
+        assertDoesNotThrow(() -> journal.onChange(huge));
+        journal.onChange(costUpdated(2, 10f));
+
+        assertEquals(1.0, meterRegistry.get("events.journal.failures").counter().count());
+        assertEquals(1, journal.getLastSequence());
+    }
+
+}
@@ -0,0 +1,200 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.fst.eventsproject.dto.CostBreakdown;
+import tn.fst.eventsproject.dto.MonthlyCost;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.entities.Logistics;
+import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
+import tn.fst.eventsproject.repositories.ArchivedEventRepository;
+import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.LogisticsRepository;
+import tn.fst.eventsproject.repositories.ParticipantRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link tn.fst.eventsproject.services.EventAnalyticsServiceImpl}
+ * against the embedded H2 schema generated by Hibernate. A leaf size of 1
+ * makes every report go through the fork-join split and merge.
+ */
+@DataJpaTest
+class EventAnalyticsServiceImplTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    LogisticsRepository logisticsRepository;
+
+    @Autowired
+    ParticipantRepository participantRepository;
+
+    @Autowired
+    ArchivedEventRepository archivedEventRepository;
+
+    EventAnalyticsServiceImpl analyticsService;
+
+    Event workshop;
+    Event rehearsal;
+    Event gala;
+
+    @BeforeEach
+    void setUp() {
+        analyticsService = new EventAnalyticsServiceImpl(dataSource, transactionManager, 10, 1, () -> 0);
+
+        Logistics projector = logisticsRepository.save(new Logistics(0, "Projector", true, 75f, 2));
+        Logistics speaker = logisticsRepository.save(new Logistics(0, "Speaker", false, 20f, 1));
+        Logistics stage = logisticsRepository.save(new Logistics(0, "Stage", true, 50f, 1));
+
+        workshop = event("Workshop", LocalDate.of(2025, 3, 10), projector, speaker);
+        rehearsal = event("Rehearsal", LocalDate.of(2025, 3, 20));
+        gala = event("Gala", LocalDate.of(2025, 6, 1), stage);
+        event("Unscheduled", null, logisticsRepository.save(new Logistics(0, "Tent", true, 90f, 1)));
+
+        participant("Tounsi", Tache.ORGANISATEUR, workshop, gala);
+        participant("Ben Ali", Tache.ORGANISATEUR, workshop);
+        participant("Trabelsi", Tache.ANIMATEUR, workshop, rehearsal);
+        participantRepository.flush();
+    }
+
+    @Test
+    /**
+     * Given: three dated events with reserved and non-reserved logistics and
+     * participants of several roles
+     * When: the breakdown is requested without a period
+     * Then: only reserved logistics are summed, each role counts an event
+     * once however many of its participants attend, and months are listed in
+     * order.
+     */
+    void getCostBreakdown_allEvents_sumsReservedCostPerRoleAndMonth() {
+        CostBreakdown breakdown = analyticsService.getCostBreakdown(null, null);
+
+        assertEquals(3, breakdown.events());
+        assertEquals(200.0, breakdown.cout(), 0.001);
+        assertEquals(2, breakdown.byTache().get(Tache.ORGANISATEUR).events());
+        assertEquals(200.0, breakdown.byTache().get(Tache.ORGANISATEUR).cout(), 0.001);
+        assertEquals(2, breakdown.byTache().get(Tache.ANIMATEUR).events());
+        assertEquals(150.0, breakdown.byTache().get(Tache.ANIMATEUR).cout(), 0.001);
+        assertEquals(0, breakdown.byTache().get(Tache.SERVEUR).events());
+
+        assertEquals(2, breakdown.byMonth().size());
+        MonthlyCost march = breakdown.byMonth().get(0);
+        assertEquals(YearMonth.of(2025, 3), march.month());
+        assertEquals(2, march.events());
+        assertEquals(150.0, march.cout(), 0.001);
+        assertEquals(150.0, march.coutByTache().get(Tache.ANIMATEUR), 0.001);
+        assertEquals(YearMonth.of(2025, 6), breakdown.byMonth().get(1).month());
+        assertEquals(50.0, breakdown.byMonth().get(1).coutByTache().get(Tache.ORGANISATEUR), 0.001);
+    }
+
+    @Test
+    /**
+     * Given: a period covering only the gala's start date
+     * When: the breakdown is requested
+     * Then: only the gala is counted.
+     */
+    void getCostBreakdown_period_includesBothBounds() {
+        CostBreakdown breakdown = analyticsService.getCostBreakdown(LocalDate.of(2025, 3, 21),
+                LocalDate.of(2025, 6, 1));
+
+        assertEquals(1, breakdown.events());
+        assertEquals(50.0, breakdown.cout(), 0.001);
+        assertEquals(1, breakdown.byTache().get(Tache.ORGANISATEUR).events());
+        assertEquals(0, breakdown.byTache().get(Tache.ANIMATEUR).events());
+    }
+
+    @Test
+    /**
+     * Given: a snapshot already loaded
+     * When: an event is added, then the breakdown is requested before and
+     * after a refresh
+     * Then: the new event only shows up once the snapshot is refreshed.
+     */
+    void getCostBreakdown_servesSnapshotUntilRefresh() {
+        CostBreakdown before = analyticsService.getCostBreakdown(null, null);
+        event("Concert", LocalDate.of(2025, 7, 1));
+        eventRepository.flush();
+
+        assertEquals(3, analyticsService.getCostBreakdown(null, null).events());
+
+        analyticsService.refresh();
+
+        CostBreakdown after = analyticsService.getCostBreakdown(null, null);
+        assertEquals(4, after.events());
+        assertFalse(after.snapshotTakenAt().isBefore(before.snapshotTakenAt()));
+    }
+
+    @Test
+    /**
+     * Given: an event of February 2025 already moved to the archive tables,
+     * with a reserved logistics item and an animator
+     * When: the snapshot is refreshed and the breakdown requested
+     * Then: the archived event is counted with its cost and role, in its own
+     * month ahead of March.
+     */
+    void getCostBreakdown_includesArchivedEvents() {
+        int animator = participantRepository.findAll().stream().filter(p -> p.getTache() == Tache.ANIMATEUR)
+                .findFirst().orElseThrow().getIdPart();
+        archivedEventRepository.saveAndFlush(new ArchivedEvent(100_000, "Fair", LocalDate.of(2025, 2, 5),
+                LocalDate.of(2025, 2, 5), 40f,
+                new HashSet<>(Set.of(logisticsRepository.save(new Logistics(0, "Booth", true, 40f, 1)))),
+                new HashSet<>(Set.of(animator))));
+
+        analyticsService.refresh();
+        CostBreakdown breakdown = analyticsService.getCostBreakdown(null, null);
+
+        assertEquals(4, breakdown.events());
+        assertEquals(240.0, breakdown.cout(), 0.001);
+        assertEquals(3, breakdown.byTache().get(Tache.ANIMATEUR).events());
+        MonthlyCost february = breakdown.byMonth().get(0);
+        assertEquals(YearMonth.of(2025, 2), february.month());
+        assertEquals(40.0, february.coutByTache().get(Tache.ANIMATEUR), 0.001);
+    }
+
+    @Test
+    /**
+     * Given: a period before every event
+     * When: the breakdown is requested
+     * Then: it is empty but still lists every role.
+     */
+    void getCostBreakdown_emptyPeriod_returnsZeros() {
+        CostBreakdown breakdown = analyticsService.getCostBreakdown(LocalDate.of(2020, 1, 1),
+                LocalDate.of(2020, 12, 31));
+
+        assertEquals(0, breakdown.events());
+        assertTrue(breakdown.byMonth().isEmpty());
+        assertEquals(Tache.values().length, breakdown.byTache().size());
+    }
+
+    private Event event(String description, LocalDate dateDebut, Logistics... logistics) {
+        Event event = new Event();
+        event.setDescription(description);
+        event.setDateDebut(dateDebut);
+        event.setDateFin(dateDebut);
+        event.setLogistics(new HashSet<>(Set.of(logistics)));
+        return eventRepository.save(event);
+    }
+
+    private void participant(String nom, Tache tache, Event... events) {
+        participantRepository.save(new Participant(0, nom, "Test", tache, new HashSet<>(Set.of(events))));
+    }
+}
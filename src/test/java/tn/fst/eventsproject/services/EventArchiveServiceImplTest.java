@@ -0,0 +1,151 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.fst.eventsproject.dto.ScheduledEvent;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.entities.Logistics;
+import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
+import tn.fst.eventsproject.repositories.ArchivedEventRepository;
+import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.LogisticsRepository;
+import tn.fst.eventsproject.repositories.ParticipantRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link tn.fst.eventsproject.services.EventArchiveServiceImpl} on
+ * the embedded H2 database, with one event per chunk so that several chunks
+ * are committed.
+ */
+@DataJpaTest
+@Import({ EventArchiveServiceImpl.class, EventDescriptionIndex.class, ParticipantScheduleIndex.class })
+@TestPropertySource(properties = "events.archive.chunk-size=1")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventArchiveServiceImplTest {
+
+    static final LocalDate HORIZON = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    IEventArchiveService eventArchiveService;
+
+    @Autowired
+    EventDescriptionIndex eventDescriptionIndex;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    ArchivedEventRepository archivedEventRepository;
+
+    @Autowired
+    ParticipantRepository participantRepository;
+
+    @Autowired
+    LogisticsRepository logisticsRepository;
+
+    @Autowired
+    DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        archivedEventRepository.deleteAll();
+        participantRepository.deleteAll();
+        eventRepository.deleteAll();
+        logisticsRepository.deleteAll();
+    }
+
+    @Test
+    /**
+     * Given: the generated schema
+     * When: the indexes of the event table are listed
+     * Then: one starts with (date_fin, id_event), so that a chunk is picked
+     * by walking only the old events, in the order it is taken.
+     */
+    void eventTable_indexesChunkSelection() {
+        List<String> columns = new JdbcTemplate(dataSource).queryForList("select column_name"
+                + " from information_schema.index_columns where table_name = 'EVENT'"
+                + " and index_name = 'IDX_EVENT_DATE_FIN' order by ordinal_position", String.class);
+
+        assertEquals(List.of("date_fin", "id_event"), columns.stream().map(String::toLowerCase).toList());
+    }
+
+    @Test
+    /**
+     * Given: two events ended before the horizon, one with a reserved
+     * logistics item and a participant, and one event ending after it
+     * When: events ended before the horizon are archived
+     * Then: the two old events leave the hot tables with their links and the
+     * recent one stays; the participant's schedule still includes the
+     * archived event.
+     */
+    void archiveEventsEndedBefore_movesOldEventsWithTheirLinks() {
+        Event old = event("Gala 2022", LocalDate.of(2022, 6, 1), LocalDate.of(2022, 6, 2),
+                logisticsRepository.save(new Logistics(0, "Chairs", true, 2f, 10)));
+        Event older = event("Gala 2021", LocalDate.of(2021, 6, 1), LocalDate.of(2021, 6, 2));
+        Event recent = event("Gala 2024", LocalDate.of(2023, 12, 30), LocalDate.of(2024, 1, 2));
+        Participant participant = new Participant(0, "Tounsi", "Ahmed", Tache.ORGANISATEUR,
+                new HashSet<>(Set.of(old, recent)));
+        participant = participantRepository.save(participant);
+
+        int archived = eventArchiveService.archiveEventsEndedBefore(HORIZON);
+
+        assertEquals(2, archived);
+        assertEquals(List.of(recent.getIdEvent()), eventRepository.findAll().stream().map(Event::getIdEvent).toList());
+        assertTrue(eventDescriptionIndex.findFirstIdByDescription("Gala 2022").isEmpty());
+        // the schedule used for conflict checks still sees the archived event
+        assertEquals(Set.of(old.getIdEvent(), recent.getIdEvent()), eventRepository
+                .findScheduleByParticipant(participant.getIdPart()).stream().map(ScheduledEvent::idEvent)
+                .collect(Collectors.toSet()));
+        assertTrue(new ParticipantScheduleIndex(eventRepository, 10).hasConflict(participant.getIdPart(),
+                LocalDate.of(2022, 6, 2), LocalDate.of(2022, 6, 5)));
+
+        ArchivedEvent moved = archivedEventRepository.findById(old.getIdEvent()).orElseThrow();
+        assertEquals("Gala 2022", moved.getDescription());
+        assertEquals(Set.of("Chairs"), moved.getLogistics().stream().map(Logistics::getDescription)
+                .collect(Collectors.toSet()));
+        assertTrue(archivedEventRepository.existsById(older.getIdEvent()));
+        assertEquals(0, eventArchiveService.archiveEventsEndedBefore(HORIZON));
+    }
+
+    @Test
+    /**
+     * Given: an archived event that started on 2022-06-01
+     * When: archived events are looked up for a range containing it and for
+     * a later range
+     * Then: only the first range returns it.
+     */
+    void findArchivedEvents_returnsArchivedEventsInRange() {
+        event("Gala 2022", LocalDate.of(2022, 6, 1), LocalDate.of(2022, 6, 2));
+        eventArchiveService.archiveEventsEndedBefore(HORIZON);
+
+        assertEquals(1, eventArchiveService
+                .findArchivedEvents(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31)).size());
+        assertTrue(eventArchiveService.findArchivedEvents(LocalDate.of(2022, 7, 1), LocalDate.of(2022, 12, 31))
+                .isEmpty());
+    }
+
+    private Event event(String description, LocalDate dateDebut, LocalDate dateFin, Logistics... logistics) {
+        Event event = eventRepository.save(new Event(0, description, dateDebut, dateFin, 0f, null,
+                new HashSet<>(Set.of(logistics))));
+        eventDescriptionIndex.index(event.getIdEvent(), description);
+        return event;
+    }
+
+}
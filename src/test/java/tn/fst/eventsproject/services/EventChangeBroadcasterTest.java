@@ -0,0 +1,148 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link tn.fst.eventsproject.services.EventChangeBroadcaster}.
+ * Buffers are drained manually so that coalescing and dropping can be
+ * observed deterministically.
+ */
+class EventChangeBroadcasterTest {
+
+    ManualExecutor executor;
+    EventChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ManualExecutor();
+        broadcaster = new EventChangeBroadcaster(2, 0L, executor);
+    }
+
+    private static EventChange change(EventChangeType type, int idEvent, float cout, Integer idLog) {
+        return new EventChange(type, idEvent, "E" + idEvent, LocalDate.of(2025, 6, idEvent), null, cout, null,
+                idLog, Instant.now());
+    }
+
+    @Test
+    /**
+     * Given: a subscriber filtered on a date range
+     * When: changes inside and outside the range are published
+     * Then: only matching changes are sent.
+     */
+    void onChange_appliesFilters() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter, null, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 5));
+
+        broadcaster.onChange(change(EventChangeType.EVENT_CREATED, 3, 0f, null));
+        broadcaster.onChange(change(EventChangeType.EVENT_CREATED, 9, 0f, null));
+        executor.runAll();
+
+        assertEquals(List.of("EVENT_CREATED"), emitter.names);
+    }
+
+    @Test
+    /**
+     * Given: a subscriber that has not been drained yet and a buffer of 2
+     * When: three cost updates of one event and two logistics changes arrive
+     * Then: cost updates coalesce to one, the oldest entry is dropped and a
+     * 'dropped' notice precedes the remaining changes.
+     */
+    void onChange_coalescesAndDropsWhenBufferFull() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter, 1, null, null);
+
+        broadcaster.onChange(change(EventChangeType.COST_UPDATED, 1, 10f, null));
+        broadcaster.onChange(change(EventChangeType.COST_UPDATED, 1, 20f, null));
+        broadcaster.onChange(change(EventChangeType.COST_UPDATED, 1, 30f, null));
+        broadcaster.onChange(change(EventChangeType.LOGISTICS_ADDED, 1, 30f, 5));
+        broadcaster.onChange(change(EventChangeType.LOGISTICS_ADDED, 1, 30f, 6));
+        executor.runAll();
+
+        assertEquals(List.of("dropped", "LOGISTICS_ADDED", "LOGISTICS_ADDED"), emitter.names);
+    }
+
+    @Test
+    /**
+     * Given: a subscriber whose connection fails
+     * When: a change is delivered
+     * Then: the subscriber is removed.
+     */
+    void onChange_removesBrokenSubscribers() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.broken = true;
+        broadcaster.subscribe(emitter, null, null, null);
+
+        broadcaster.onChange(change(EventChangeType.EVENT_CREATED, 1, 0f, null));
+        executor.runAll();
+
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    static final class RecordingEmitter extends SseEmitter {
+        final List<String> names = new ArrayList<>();
+        boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("connection reset");
+            }
+            String firstLine = builder.build().iterator().next().getData().toString();
+            names.add(firstLine.substring("event:".length(), firstLine.indexOf('\n')));
+        }
+    }
+
+    static final class ManualExecutor extends AbstractExecutorService {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return tasks;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+}
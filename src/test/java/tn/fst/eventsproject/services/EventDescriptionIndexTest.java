@@ -0,0 +1,89 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tn.fst.eventsproject.dto.EventSummary;
+import tn.fst.eventsproject.repositories.EventRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link tn.fst.eventsproject.services.EventDescriptionIndex}.
+ */
+@ExtendWith(MockitoExtension.class)
+class EventDescriptionIndexTest {
+
+    @Mock
+    EventRepository eventRepository;
+
+    EventDescriptionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EventDescriptionIndex(eventRepository);
+    }
+
+    @Test
+    /**
+     * Given: events stored in the database
+     * When: the index is rebuilt
+     * Then: every event is searchable.
+     */
+    void rebuild_loadsAllDescriptions() {
+        when(eventRepository.streamAllSummaries()).thenReturn(Stream.of(
+                new EventSummary(1, "Workshop Java"), new EventSummary(2, "Gala")));
+
+        index.rebuild();
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(new EventSummary(2, "Gala")), index.search("gal", 10));
+    }
+
+    @Test
+    /**
+     * Given: descriptions sharing words
+     * When: searching with several words, the last one incomplete
+     * Then: description prefixes rank first, then events containing every
+     * word, ignoring case and accents.
+     */
+    void search_prefixThenTokenMatches() {
+        index.index(1, "Soirée de gala");
+        index.index(2, "Gala des étudiants");
+        index.index(3, "Atelier soirée");
+
+        assertEquals(List.of(new EventSummary(2, "Gala des étudiants"), new EventSummary(1, "Soirée de gala")),
+                index.search("GALA", 10));
+        assertEquals(List.of(new EventSummary(1, "Soirée de gala")), index.search("soiree ga", 10));
+        assertEquals(1, index.search("soiree", 1).size());
+        assertTrue(index.search("concert", 10).isEmpty());
+    }
+
+    @Test
+    /**
+     * Given: an indexed event whose description changes, then is removed
+     * When: searching for the old and new descriptions
+     * Then: only the current description is found.
+     */
+    void index_replacesAndRemovesPostings() {
+        index.index(1, "Old name");
+        index.index(1, "New name");
+
+        assertTrue(index.search("old", 10).isEmpty());
+        assertEquals(Optional.of(1), index.findFirstIdByDescription("New name"));
+        assertEquals(Optional.empty(), index.findFirstIdByDescription("new name"));
+
+        index.remove(1);
+
+        assertTrue(index.search("name", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+}
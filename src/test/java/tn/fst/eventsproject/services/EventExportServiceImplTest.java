@@ -0,0 +1,144 @@
+package tn.fst.eventsproject.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.entities.Logistics;
+import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
+import tn.fst.eventsproject.repositories.ArchivedEventRepository;
+import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.LogisticsRepository;
+import tn.fst.eventsproject.repositories.ParticipantRepository;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link tn.fst.eventsproject.services.EventExportServiceImpl}
+ * against the embedded H2 schema generated by Hibernate.
+ */
+@DataJpaTest
+class EventExportServiceImplTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    LogisticsRepository logisticsRepository;
+
+    @Autowired
+    ParticipantRepository participantRepository;
+
+    @Autowired
+    ArchivedEventRepository archivedEventRepository;
+
+    EventExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new EventExportServiceImpl(dataSource, objectMapper, 10);
+
+        Logistics reserved = new Logistics(0, "Projector", true, 75f, 2);
+        Logistics notReserved = new Logistics(0, "Speaker", false, 20f, 1);
+        logisticsRepository.save(reserved);
+        logisticsRepository.save(notReserved);
+
+        Event workshop = new Event();
+        workshop.setDescription("Workshop, day 1");
+        workshop.setDateDebut(LocalDate.of(2025, 3, 1));
+        workshop.setDateFin(LocalDate.of(2025, 3, 2));
+        workshop.setLogistics(new HashSet<>(Set.of(reserved, notReserved)));
+        eventRepository.save(workshop);
+
+        Event gala = new Event();
+        gala.setDescription("Gala");
+        gala.setDateDebut(LocalDate.of(2025, 6, 1));
+        gala.setDateFin(LocalDate.of(2025, 6, 1));
+        eventRepository.save(gala);
+
+        Participant participant = new Participant(0, "Tounsi", "Ahmed", Tache.ORGANISATEUR,
+                new HashSet<>(Set.of(workshop)));
+        participantRepository.saveAndFlush(participant);
+    }
+
+    @Test
+    /**
+     * Given: two events, one with a reserved and a non-reserved logistics item
+     * When: the catalog is exported as csv
+     * Then: only reserved logistics appear, descriptions are quoted and events
+     * without logistics still produce a line.
+     */
+    void exportEvents_csv_writesOneLinePerReservedLogistics() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportEvents(ExportFormat.CSV, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].contains("\"Workshop, day 1\",2025-03-01,2025-03-02,0.0,1,"));
+        assertTrue(lines[1].endsWith(",Projector,75.0,2"));
+        assertTrue(lines[2].contains(",Gala,2025-06-01,2025-06-01,0.0,0,,,,"));
+    }
+
+    @Test
+    /**
+     * Given: a date range only covering the second event
+     * When: the catalog is exported as ndjson
+     * Then: a single JSON line is produced for that event.
+     */
+    void exportEvents_ndjsonWithDateRange_filtersOnDateDebut() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportEvents(ExportFormat.NDJSON, LocalDate.of(2025, 5, 1), LocalDate.of(2025, 12, 31), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("\"description\":\"Gala\""));
+        assertTrue(lines[0].contains("\"logistics\":[]"));
+    }
+
+    @Test
+    /**
+     * Given: an event already moved to the archive tables with a reserved
+     * logistics item and two participants
+     * When: the catalog is exported as csv, then restricted to 2023
+     * Then: the archived event is exported with its logistics and participant
+     * count, in id order with the hot events, and it is alone in 2023.
+     */
+    void exportEvents_includesArchivedEvents() throws Exception {
+        Logistics tent = logisticsRepository.save(new Logistics(0, "Tent", true, 300f, 1));
+        archivedEventRepository.saveAndFlush(new ArchivedEvent(100_000, "Fair 2023", LocalDate.of(2023, 9, 1),
+                LocalDate.of(2023, 9, 3), 300f, new HashSet<>(Set.of(tent)), new HashSet<>(Set.of(1, 2))));
+
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        exportService.exportEvents(ExportFormat.CSV, null, null, all);
+        ByteArrayOutputStream year = new ByteArrayOutputStream();
+        exportService.exportEvents(ExportFormat.CSV, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31), year);
+
+        String[] lines = all.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("100000,Fair 2023,2023-09-01,2023-09-03,300.0,2," + tent.getIdLog() + ",Tent,300.0,1",
+                lines[3]);
+        String[] yearLines = year.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, yearLines.length);
+        assertEquals(lines[3], yearLines[1]);
+    }
+
+}
@@ -0,0 +1,176 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.web.server.ResponseStatusException;
+import tn.fst.eventsproject.dto.EventFilter;
+import tn.fst.eventsproject.dto.KeysetPage;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.entities.Logistics;
+import tn.fst.eventsproject.repositories.ArchivedEventRepository;
+import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.InventorySlotRepository;
+import tn.fst.eventsproject.repositories.LogisticsRepository;
+import tn.fst.eventsproject.repositories.ParticipantRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset pagination and field projection of
+ * {@link tn.fst.eventsproject.services.EventServicesImpl#listEvents} against
+ * the embedded H2 database.
+ */
+@DataJpaTest
+class EventListingTest {
+
+    static final EventFilter ALL = new EventFilter(null, null, null, null);
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    ParticipantRepository participantRepository;
+
+    @Autowired
+    LogisticsRepository logisticsRepository;
+
+    @Autowired
+    InventorySlotRepository inventorySlotRepository;
+
+    @Autowired
+    ArchivedEventRepository archivedEventRepository;
+
+    IEventArchiveService eventArchiveService;
+
+    EventServicesImpl eventServices;
+
+    @BeforeEach
+    void setUp() {
+        eventArchiveService = Mockito.mock(IEventArchiveService.class);
+        eventServices = new EventServicesImpl(eventRepository, participantRepository, logisticsRepository,
+                new EventDescriptionIndex(eventRepository), new ParticipantScheduleIndex(eventRepository, 100),
+                new InventoryServiceImpl(inventorySlotRepository, 4), change -> {
+                }, eventArchiveService, new TopCostEventIndex(eventRepository, 10));
+        Logistics chairs = logisticsRepository.save(new Logistics(0, "Chairs", true, 2f, 10));
+        eventRepository.saveAll(List.of(
+                new Event(0, "Workshop", LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 2), 100f, null,
+                        Set.of(chairs)),
+                new Event(0, "Gala", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 1), 900f, null, null),
+                new Event(0, "Meetup", LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 2), 50f, null, null),
+                new Event(0, "Hackathon", LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 2), 400f, null, null),
+                new Event(0, "Draft", null, null, 0f, null, null)));
+    }
+
+    @Test
+    /**
+     * Given: four dated events, two of them on the same day, and one undated
+     * When: they are listed two per page with only idEvent and description
+     * Then: pages follow (dateDebut, idEvent) order across the tie, carry only
+     * the requested fields, and the last page has no cursor.
+     */
+    void listEvents_pagesInDateThenIdOrder() {
+        List<String> fields = List.of("idEvent", "description");
+
+        KeysetPage<Map<String, Object>> first = eventServices.listEvents(ALL, fields, null, 2);
+        KeysetPage<Map<String, Object>> second = eventServices.listEvents(ALL, fields, first.nextCursor(), 2);
+
+        assertEquals(List.of("Gala", "Workshop"), first.content().stream().map(e -> e.get("description")).toList());
+        assertEquals(Set.of("idEvent", "description"), first.content().get(0).keySet());
+        assertNotNull(first.nextCursor());
+        assertTrue(first.nextCursor().startsWith("2025-03-02_"));
+        assertEquals(List.of("Meetup", "Hackathon"), second.content().stream().map(e -> e.get("description")).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    /**
+     * Given: the same events
+     * When: events of March costing at least 100 are listed with default fields
+     * Then: only Gala and Workshop are returned with all scalar fields.
+     */
+    void listEvents_appliesDateAndCostFilters() {
+        KeysetPage<Map<String, Object>> page = eventServices.listEvents(
+                new EventFilter(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), 100f, null), null, null, 10);
+
+        assertEquals(List.of("Gala", "Workshop"), page.content().stream().map(e -> e.get("description")).toList());
+        assertEquals(List.of("idEvent", "description", "dateDebut", "dateFin", "cout"),
+                List.copyOf(page.content().get(1).keySet()));
+        assertEquals(100f, page.content().get(1).get("cout"));
+    }
+
+    @Test
+    /**
+     * Given: a request for the logistics collection and a malformed cursor
+     * When: events are listed
+     * Then: both are rejected with 400.
+     */
+    void listEvents_rejectsUnknownFieldsAndCursors() {
+        ResponseStatusException field = assertThrows(ResponseStatusException.class,
+                () -> eventServices.listEvents(ALL, List.of("logistics"), null, 10));
+        ResponseStatusException cursor = assertThrows(ResponseStatusException.class,
+                () -> eventServices.listEvents(ALL, null, "42", 10));
+        assertEquals(400, field.getStatusCode().value());
+        assertEquals(400, cursor.getStatusCode().value());
+    }
+
+    @Test
+    /**
+     * Given: the same events plus two archived ones, one of them on the same
+     * day as hot events
+     * When: they are listed three per page
+     * Then: archived events are interleaved in (dateDebut, idEvent) order
+     * and the cursor carries on across both tables.
+     */
+    void listEvents_includesArchivedEvents() {
+        archivedEventRepository.saveAll(List.of(
+                new ArchivedEvent(100_000, "Fair", LocalDate.of(2024, 9, 1), LocalDate.of(2024, 9, 3), 300f, null,
+                        null),
+                new ArchivedEvent(100_001, "Retreat", LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 2), 80f, null,
+                        null)));
+        Mockito.when(eventArchiveService.reachesArchive(Mockito.any())).thenReturn(true);
+        List<String> fields = List.of("description");
+
+        KeysetPage<Map<String, Object>> first = eventServices.listEvents(ALL, fields, null, 3);
+        KeysetPage<Map<String, Object>> second = eventServices.listEvents(ALL, fields, first.nextCursor(), 3);
+
+        assertEquals(List.of("Fair", "Gala", "Workshop"),
+                first.content().stream().map(e -> e.get("description")).toList());
+        assertEquals(List.of("Meetup", "Retreat", "Hackathon"),
+                second.content().stream().map(e -> e.get("description")).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    /**
+     * Given: an archived event, and an archive that only reaches back to
+     * dates before 2025-03-02
+     * When: the first page and then the page after a 2025-03-02 cursor are
+     * listed
+     * Then: the archive is asked about the whole range for the first page
+     * and about the cursor date for the next one, which it is not read for.
+     */
+    void listEvents_readsArchiveFromCursorPosition() {
+        archivedEventRepository.save(new ArchivedEvent(100_000, "Fair", LocalDate.of(2024, 9, 1),
+                LocalDate.of(2024, 9, 3), 300f, null, null));
+        Mockito.when(eventArchiveService.reachesArchive(null)).thenReturn(true);
+        List<String> fields = List.of("description");
+
+        KeysetPage<Map<String, Object>> first = eventServices.listEvents(ALL, fields, null, 3);
+        KeysetPage<Map<String, Object>> second = eventServices.listEvents(ALL, fields, first.nextCursor(), 3);
+
+        assertEquals(List.of("Fair", "Gala", "Workshop"),
+                first.content().stream().map(e -> e.get("description")).toList());
+        assertEquals(List.of("Meetup", "Hackathon"), second.content().stream().map(e -> e.get("description")).toList());
+        Mockito.verify(eventArchiveService).reachesArchive(LocalDate.of(2025, 3, 2));
+    }
+
+}
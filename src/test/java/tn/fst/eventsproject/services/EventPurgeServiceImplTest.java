@@ -0,0 +1,237 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import tn.fst.eventsproject.dto.PurgeProgress;
+import tn.fst.eventsproject.dto.PurgeRequest;
+import tn.fst.eventsproject.dto.PurgeStatus;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.entities.Logistics;
+import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
+import tn.fst.eventsproject.repositories.ArchivedEventRepository;
+import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.InventorySlotRepository;
+import tn.fst.eventsproject.repositories.LogisticsRepository;
+import tn.fst.eventsproject.repositories.ParticipantRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link tn.fst.eventsproject.services.EventPurgeServiceImpl} on the
+ * embedded H2 database, two events per chunk and no pause between chunks.
+ */
+@DataJpaTest
+@Import({ EventPurgeServiceImpl.class, EventDescriptionIndex.class, ParticipantScheduleIndex.class,
+        InventoryServiceImpl.class })
+@TestPropertySource(properties = { "events.purge.chunk-size=2", "events.purge.pause-ms=0" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventPurgeServiceImplTest {
+
+    @Autowired
+    IEventPurgeService eventPurgeService;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    ParticipantRepository participantRepository;
+
+    @Autowired
+    LogisticsRepository logisticsRepository;
+
+    @Autowired
+    ArchivedEventRepository archivedEventRepository;
+
+    @Autowired
+    InventorySlotRepository inventorySlotRepository;
+
+    @Autowired
+    IInventoryService inventoryService;
+
+    @Autowired
+    DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        participantRepository.deleteAll();
+        eventRepository.deleteAll();
+        archivedEventRepository.deleteAll();
+        logisticsRepository.deleteAll();
+        inventorySlotRepository.deleteAll();
+    }
+
+    private Event event(String description, LocalDate dateDebut) {
+        return eventRepository.save(new Event(0, description, dateDebut, dateDebut, 0f, null,
+                new HashSet<>(Set.of(logisticsRepository.save(new Logistics(0, "Chairs", true, 2f, 10))))));
+    }
+
+    private PurgeProgress awaitEnd(String id) throws InterruptedException {
+        PurgeProgress progress = eventPurgeService.getProgress(id);
+        for (int i = 0; i < 500 && progress.status() == PurgeStatus.RUNNING; i++) {
+            Thread.sleep(10);
+            progress = eventPurgeService.getProgress(id);
+        }
+        return progress;
+    }
+
+    @Test
+    /**
+     * Given: five events in March 2025 linked to a participant and one in April
+     * When: March is purged
+     * Then: the five events and their links are deleted in three chunks and
+     * the April event and the participant remain.
+     */
+    void startPurge_byDateRange_deletesInChunks() throws Exception {
+        Set<Event> march = new HashSet<>();
+        for (int day = 1; day <= 5; day++) {
+            march.add(event("March " + day, LocalDate.of(2025, 3, day)));
+        }
+        Event april = event("April", LocalDate.of(2025, 4, 1));
+        march.add(april);
+        participantRepository.save(new Participant(0, "Tounsi", "Ahmed", Tache.INVITE, march));
+
+        PurgeProgress started = eventPurgeService.startPurge(
+                new PurgeRequest(null, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)));
+        assertEquals(5, started.matched());
+        PurgeProgress done = awaitEnd(started.id());
+
+        assertEquals(PurgeStatus.COMPLETED, done.status());
+        assertEquals(5, done.deleted());
+        assertEquals(3, done.chunks());
+        assertEquals(List.of(april.getIdEvent()), eventRepository.findAll().stream().map(Event::getIdEvent).toList());
+        assertEquals(1, eventRepository.findScheduleByParticipant(
+                participantRepository.findAll().get(0).getIdPart()).size());
+    }
+
+    @Test
+    /**
+     * Given: two events
+     * When: one of them and an unknown id are purged by id
+     * Then: only that event is deleted.
+     */
+    void startPurge_byIds_deletesListedEvents() throws Exception {
+        Event kept = event("Kept", LocalDate.of(2025, 3, 1));
+        Event purged = event("Purged", LocalDate.of(2025, 3, 2));
+
+        PurgeProgress done = awaitEnd(eventPurgeService
+                .startPurge(new PurgeRequest(List.of(purged.getIdEvent(), 999_999), null, null)).id());
+
+        assertEquals(PurgeStatus.COMPLETED, done.status());
+        assertEquals(2, done.matched());
+        assertEquals(1, done.deleted());
+        assertTrue(eventRepository.existsById(kept.getIdEvent()));
+        assertFalse(eventRepository.existsById(purged.getIdEvent()));
+    }
+
+    @Test
+    /**
+     * Given: an archived event in March 2025 linked to a participant, one in
+     * April, and a hot event in March
+     * When: March is purged, then the April archive entry by id
+     * Then: both March events are deleted, the archived one with its links,
+     * and the April one goes with the purge by id.
+     */
+    void startPurge_archivedEvents_arePurgedToo() throws Exception {
+        Event hot = event("Hot", LocalDate.of(2025, 3, 2));
+        ArchivedEvent march = archivedEventRepository.save(new ArchivedEvent(100_000, "Archived",
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 1), 0f,
+                new HashSet<>(Set.of(logisticsRepository.save(new Logistics(0, "Tent", false, 5f, 1)))),
+                new HashSet<>(Set.of(1))));
+        ArchivedEvent april = archivedEventRepository.save(new ArchivedEvent(100_001, "April",
+                LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 1), 0f, new HashSet<>(), new HashSet<>()));
+
+        PurgeProgress started = eventPurgeService.startPurge(
+                new PurgeRequest(null, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)));
+        assertEquals(2, started.matched());
+        PurgeProgress done = awaitEnd(started.id());
+
+        assertEquals(PurgeStatus.COMPLETED, done.status());
+        assertEquals(2, done.deleted());
+        assertFalse(eventRepository.existsById(hot.getIdEvent()));
+        assertEquals(List.of(april.getIdEvent()),
+                archivedEventRepository.findAll().stream().map(ArchivedEvent::getIdEvent).toList());
+        assertFalse(archivedEventRepository.existsById(march.getIdEvent()));
+
+        PurgeProgress byId = awaitEnd(eventPurgeService
+                .startPurge(new PurgeRequest(List.of(april.getIdEvent()), null, null)).id());
+
+        assertEquals(1, byId.deleted());
+        assertEquals(0, archivedEventRepository.count());
+    }
+
+    @Test
+    /**
+     * Given: 30 tracked chairs, 10 reserved by a hot event and 10 by an
+     * archived one
+     * When: both events are purged
+     * Then: the 20 reserved chairs are back in stock.
+     */
+    void startPurge_reservedStock_isReleased() throws Exception {
+        inventoryService.addStock("Chairs", 30);
+        inventoryService.reserve("Chairs", 10);
+        Event hot = event("Hot", LocalDate.of(2025, 3, 2));
+        inventoryService.reserve("Chairs", 10);
+        archivedEventRepository.save(new ArchivedEvent(100_000, "Archived", LocalDate.of(2025, 3, 1),
+                LocalDate.of(2025, 3, 1), 0f,
+                new HashSet<>(Set.of(logisticsRepository.save(new Logistics(0, "Chairs", true, 2f, 10)))),
+                new HashSet<>()));
+        assertEquals(10, inventoryService.getStock("Chairs").disponible());
+
+        PurgeProgress done = awaitEnd(eventPurgeService
+                .startPurge(new PurgeRequest(List.of(hot.getIdEvent(), 100_000), null, null)).id());
+
+        assertEquals(2, done.deleted());
+        assertEquals(30, inventoryService.getStock("Chairs").disponible());
+    }
+
+    @Test
+    /**
+     * Given: the generated schema
+     * When: the start date indexes of the hot and archive event tables are
+     * listed
+     * Then: both are on (date_debut, id_event), so that a date range chunk is
+     * picked by walking only the rows in range, in the order it is taken.
+     */
+    void eventTables_indexDateRangeChunks() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String index : List.of("IDX_EVENT_DATE_DEBUT", "IDX_EVENT_ARCHIVE_DATE_DEBUT")) {
+            List<String> columns = jdbcTemplate.queryForList("select column_name from information_schema.index_columns"
+                    + " where index_name = ? order by ordinal_position", String.class, index);
+
+            assertEquals(List.of("date_debut", "id_event"), columns.stream().map(String::toLowerCase).toList(), index);
+        }
+    }
+
+    @Test
+    /**
+     * Given: a request with both ids and dates, and one with neither
+     * When: purges are started
+     * Then: both are rejected with 400.
+     */
+    void startPurge_ambiguousRequest_returnsBadRequest() {
+        ResponseStatusException both = assertThrows(ResponseStatusException.class,
+                () -> eventPurgeService.startPurge(
+                        new PurgeRequest(List.of(1), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1))));
+        ResponseStatusException neither = assertThrows(ResponseStatusException.class,
+                () -> eventPurgeService.startPurge(new PurgeRequest(List.of(), null, null)));
+        assertEquals(400, both.getStatusCode().value());
+        assertEquals(400, neither.getStatusCode().value());
+    }
+
+}
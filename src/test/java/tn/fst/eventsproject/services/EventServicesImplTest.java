@@ -6,7 +6,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.server.ResponseStatusException;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+import tn.fst.eventsproject.entities.ArchivedEvent;
 import tn.fst.eventsproject.entities.Event;
 import tn.fst.eventsproject.entities.Logistics;
 import tn.fst.eventsproject.entities.Participant;
@@ -20,7 +24,9 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -45,6 +51,24 @@ class EventServicesImplTest {
     @Mock
     LogisticsRepository logisticsRepository;
 
+    @Mock
+    EventDescriptionIndex eventDescriptionIndex;
+
+    @Mock
+    ParticipantScheduleIndex participantScheduleIndex;
+
+    @Mock
+    IInventoryService inventoryService;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    IEventArchiveService eventArchiveService;
+
+    @Mock
+    TopCostEventIndex topCostEventIndex;
+
     @InjectMocks
     EventServicesImpl eventServices;
 
@@ -72,6 +96,8 @@ class EventServicesImplTest {
         assertEquals(42, saved.getIdPart());
         assertEquals("Alice", saved.getNom());
         verify(participantRepository).save(any(Participant.class));
+        verify(eventPublisher).publishEvent(argThat((Object change) -> change instanceof EventChange c
+                && c.type() == EventChangeType.PARTICIPANT_ADDED && c.idParticipant() == 42));
     }
 
     @Test
@@ -79,7 +105,8 @@ class EventServicesImplTest {
      * Given: an existing participant id and a new Event
      * When: addAffectEvenParticipant(event, id) is called
      * Then: the event is linked and saved through the repository
-     * and the returned event reflects the saved values.
+     * and the returned event reflects the saved values; the participant is
+     * read without a row lock.
      */
     void addAffectEvenParticipant_withId_addsEventAndSaves() {
         Participant existing = new Participant();
@@ -96,6 +123,8 @@ class EventServicesImplTest {
         // ensure repository save was called and returned the given event
         assertEquals("E1", saved.getDescription());
         verify(eventRepository).save(any(Event.class));
+        // without the conflict check the participant row is not locked
+        verify(participantRepository, never()).findLockedByIdPart(anyInt());
     }
 
     @Test
@@ -115,6 +144,30 @@ class EventServicesImplTest {
         });
     }
 
+    @Test
+    /**
+     * Given: a participant whose schedule overlaps the new event
+     * When: addAffectEvenParticipant(event, id, true) is called
+     * Then: a 409 ResponseStatusException is thrown and nothing is saved.
+     */
+    void addAffectEvenParticipant_withConflictCheck_overlap_throwsConflict() {
+        Participant existing = new Participant();
+        existing.setIdPart(7);
+        when(participantRepository.findLockedByIdPart(7)).thenReturn(Optional.of(existing));
+
+        Event event = new Event();
+        event.setDateDebut(LocalDate.of(2025, 5, 10));
+        event.setDateFin(LocalDate.of(2025, 5, 12));
+
+        when(participantScheduleIndex.hasConflict(7, event.getDateDebut(), event.getDateFin(), 0))
+                .thenReturn(true);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> eventServices.addAffectEvenParticipant(event, 7, true));
+        assertEquals(409, ex.getStatusCode().value());
+        verify(eventRepository, never()).save(any(Event.class));
+    }
+
     @Test
     /**
      * Given: a participant that already has events
@@ -137,8 +190,11 @@ class EventServicesImplTest {
         Event saved = eventServices.addAffectEvenParticipant(event, 7);
 
         assertEquals("E2", saved.getDescription());
-        assertTrue(existing.getEvents().contains(event));
+        assertTrue(existing.getEvents().contains(saved));
         verify(eventRepository).save(any(Event.class));
+        verify(participantScheduleIndex).addOnCommit(7, saved);
+        verify(eventPublisher).publishEvent(argThat((Object change) -> change instanceof EventChange c
+                && c.type() == EventChangeType.PARTICIPANT_LINKED && c.idParticipant() == 7));
     }
 
     @Test
@@ -240,7 +296,7 @@ class EventServicesImplTest {
         Event saved = eventServices.addAffectEvenParticipant(event);
 
         assertEquals("E6", saved.getDescription());
-        assertTrue(existingP1.getEvents().contains(event));
+        assertTrue(existingP1.getEvents().contains(saved));
     }
 
     @Test
@@ -296,7 +352,8 @@ class EventServicesImplTest {
         assertEquals("Projector", result.getDescription());
         assertNotNull(event.getLogistics());
         assertTrue(event.getLogistics().contains(savedLogistics));
-        verify(logisticsRepository).save(logistics);
+        verify(logisticsRepository).save(argThat((Logistics saved) -> saved != logistics && saved.getIdLog() == 0
+                && "Projector".equals(saved.getDescription())));
         verify(eventRepository).save(event);
     }
 
@@ -335,6 +392,54 @@ class EventServicesImplTest {
         assertEquals(2, event.getLogistics().size());
     }
 
+    @Test
+    /**
+     * Given: the description index knows the event description
+     * When: addAffectLog(logistics, description) is called
+     * Then: the event is loaded by primary key and the description query is
+     * never issued.
+     */
+    void addAffectLog_descriptionIndexed_loadsEventById() {
+        Event event = new Event();
+        event.setIdEvent(3);
+        event.setDescription("TestEvent");
+
+        Logistics logistics = new Logistics();
+        logistics.setDescription("Projector");
+
+        when(eventDescriptionIndex.findFirstIdByDescription("TestEvent")).thenReturn(Optional.of(3));
+        when(eventRepository.findById(3)).thenReturn(Optional.of(event));
+        when(logisticsRepository.save(any(Logistics.class))).thenReturn(logistics);
+
+        eventServices.addAffectLog(logistics, "TestEvent");
+
+        assertTrue(event.getLogistics().contains(logistics));
+        verify(eventRepository, never()).findFirstByDescription(any());
+        verify(eventRepository).save(event);
+    }
+
+    @Test
+    /**
+     * Given: a reserved logistics item with a shared stock
+     * When: addAffectLog(logistics, description) is called
+     * Then: the requested quantity is taken from the stock before saving.
+     */
+    void addAffectLog_trackedReservedItem_reservesStock() {
+        Event event = new Event();
+        event.setDescription("TestEvent");
+
+        Logistics logistics = new Logistics(0, "Projector", true, 75f, 3);
+
+        when(eventRepository.findFirstByDescription("TestEvent")).thenReturn(event);
+        when(inventoryService.isTracked("Projector")).thenReturn(true);
+        when(logisticsRepository.save(any(Logistics.class))).thenReturn(logistics);
+
+        eventServices.addAffectLog(logistics, "TestEvent");
+
+        verify(inventoryService).reserve("Projector", 3);
+        verify(logisticsRepository).save(argThat((Logistics saved) -> saved.isReserve() && saved.getQuantite() == 3));
+    }
+
     @Test
     /**
      * Given: eventRepository.findFirstByDescription returns null
@@ -441,6 +546,36 @@ class EventServicesImplTest {
         assertTrue(result.get(0).isReserve());
     }
 
+    @Test
+    /**
+     * Given: a range reaching into the archive, one hot event and two archived
+     * events, one of which is also still returned by the hot table
+     * When: getLogisticsDates(start, end) is called
+     * Then: reserved logistics of both tables are returned, the event caught
+     * mid-move only once.
+     */
+    void getLogisticsDates_rangeReachingArchive_mergesArchivedEvents() {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+
+        Logistics hotLog = new Logistics(1, "Chairs", true, 2f, 10);
+        Logistics movingLog = new Logistics(2, "Tables", true, 5f, 2);
+        Logistics archivedLog = new Logistics(3, "Projector", true, 50f, 1);
+
+        Event hot = new Event(1, "Hot", start, end, 0f, null, Set.of(hotLog));
+        Event moving = new Event(2, "Moving", start, start, 0f, null, Set.of(movingLog));
+        ArchivedEvent movedToo = new ArchivedEvent(2, "Moving", start, start, 0f, Set.of(movingLog), Set.of());
+        ArchivedEvent archived = new ArchivedEvent(3, "Old", start, start, 0f, Set.of(archivedLog), Set.of());
+
+        when(eventRepository.findByDateDebutBetween(start, end)).thenReturn(List.of(hot, moving));
+        when(eventArchiveService.findArchivedEvents(start, end)).thenReturn(List.of(movedToo, archived));
+
+        List<Logistics> result = eventServices.getLogisticsDates(start, end);
+
+        assertEquals(3, result.size());
+        assertTrue(result.containsAll(List.of(hotLog, movingLog, archivedLog)));
+    }
+
     @Test
     /**
      * Given: no events matching the selector
@@ -454,36 +589,60 @@ class EventServicesImplTest {
         eventServices.calculCout();
 
         verify(eventRepository, never()).save(any(Event.class));
+        verify(eventRepository, never()).updateCout(anyInt(), anyFloat());
     }
 
     @Test
     /**
-     * Given: an event with null logistics
+     * Given: an event with a stale cost and null logistics
      * When: calculCout() is called
-     * Then: the event's cost is set to 0 and eventRepository.save(...) is
-     * called.
+     * Then: the event's cost is set to 0 through the cout-only update, the
+     * entity itself is not saved.
      */
     void calculCout_eventWithNoLogistics_setsCoutToZero() {
         Event event = new Event();
+        event.setIdEvent(4);
         event.setDescription("Test");
+        event.setCout(30f);
         event.setLogistics(null);
 
         when(eventRepository.findByParticipants_NomAndParticipants_PrenomAndParticipants_Tache(
                 "Tounsi", "Ahmed", Tache.ORGANISATEUR)).thenReturn(List.of(event));
-        when(eventRepository.save(any(Event.class))).thenReturn(event);
 
         eventServices.calculCout();
 
         assertEquals(0f, event.getCout());
-        verify(eventRepository).save(event);
+        verify(eventRepository).updateCout(4, 0f);
+        verify(eventRepository, never()).save(any(Event.class));
+    }
+
+    @Test
+    /**
+     * Given: an event whose cost is already up to date
+     * When: calculCout() is called
+     * Then: nothing is written and no change is published.
+     */
+    void calculCout_unchangedCost_writesNothing() {
+        Event event = new Event();
+        event.setIdEvent(5);
+        event.setDescription("Test");
+        event.setLogistics(null);
+
+        when(eventRepository.findByParticipants_NomAndParticipants_PrenomAndParticipants_Tache(
+                "Tounsi", "Ahmed", Tache.ORGANISATEUR)).thenReturn(List.of(event));
+
+        eventServices.calculCout();
+
+        verify(eventRepository, never()).updateCout(anyInt(), anyFloat());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
     /**
      * Given: an event with reserved and non-reserved logistics
      * When: calculCout() is called
-     * Then: only reserved logistics contribute to the event cost and the
-     * result is saved.
+     * Then: only reserved logistics contribute to the event cost and only
+     * the cout column is updated.
      */
     void calculCout_eventWithReservedLogistics_calculatesCost() {
         Logistics reserved = new Logistics();
@@ -501,17 +660,67 @@ class EventServicesImplTest {
         logisticsSet.add(notReserved);
 
         Event event = new Event();
+        event.setIdEvent(6);
         event.setDescription("Test");
         event.setLogistics(logisticsSet);
 
         when(eventRepository.findByParticipants_NomAndParticipants_PrenomAndParticipants_Tache(
                 "Tounsi", "Ahmed", Tache.ORGANISATEUR)).thenReturn(List.of(event));
-        when(eventRepository.save(any(Event.class))).thenReturn(event);
 
         eventServices.calculCout();
 
         assertEquals(50f, event.getCout()); // 10 * 5 = 50, not reserved is skipped
-        verify(eventRepository).save(event);
+        verify(eventRepository).updateCout(6, 50f);
+        verify(eventRepository, never()).save(any(Event.class));
+        verify(eventPublisher).publishEvent(argThat((Object change) -> change instanceof EventChange c
+                && c.type() == EventChangeType.COST_UPDATED && c.cout() == 50f));
+    }
+
+    @Test
+    /**
+     * Given: two events, each with its own reserved logistics
+     * When: calculCout() is called
+     * Then: each event gets the cost of its own logistics, not a running
+     * total over the events computed before it.
+     */
+    void calculCout_severalEvents_costsAreNotAccumulated() {
+        Event first = new Event();
+        first.setIdEvent(8);
+        first.setLogistics(Set.of(new Logistics(1, "Chairs", true, 2f, 10)));
+        Event second = new Event();
+        second.setIdEvent(9);
+        second.setLogistics(Set.of(new Logistics(2, "Screens", true, 100f, 1)));
+
+        when(eventRepository.findByParticipants_NomAndParticipants_PrenomAndParticipants_Tache(
+                "Tounsi", "Ahmed", Tache.ORGANISATEUR)).thenReturn(List.of(first, second));
+
+        eventServices.calculCout();
+
+        assertEquals(20f, first.getCout());
+        assertEquals(100f, second.getCout());
+        verify(eventRepository).updateCout(8, 20f);
+        verify(eventRepository).updateCout(9, 100f);
+    }
+
+    @Test
+    /**
+     * Given: a new event saved through addAffectEvenParticipant(event)
+     * When: the repository assigns its id
+     * Then: the event description is added to the search index.
+     */
+    void addAffectEvenParticipant_indexesSavedDescription() {
+        Event event = new Event();
+        event.setDescription("Hackathon");
+
+        when(eventRepository.save(any(Event.class))).thenAnswer(i -> {
+            Event arg = i.getArgument(0);
+            arg.setIdEvent(11);
+            return arg;
+        });
+
+        eventServices.addAffectEvenParticipant(event);
+
+        verify(eventDescriptionIndex).index(11, "Hackathon");
     }
 
 }
@@ -0,0 +1,185 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tn.fst.eventsproject.config.OptimisticRetryAspect;
+import tn.fst.eventsproject.dto.InventoryStock;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.entities.Logistics;
+import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.LogisticsRepository;
+import tn.fst.eventsproject.repositories.ParticipantRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link tn.fst.eventsproject.services.InventoryServiceImpl} on the
+ * embedded H2 database, behind its transaction and retry proxies. Test
+ * methods run outside a test transaction so every service call commits on
+ * its own, as it would in production.
+ */
+@DataJpaTest
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({ InventoryServiceImpl.class, OptimisticRetryAspect.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServiceImplTest {
+
+    @Autowired
+    IInventoryService inventoryService;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    ParticipantRepository participantRepository;
+
+    @Autowired
+    LogisticsRepository logisticsRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    /**
+     * Given: 10 projectors spread over the default 8 slots
+     * When: 3 then 7 units are reserved, then 1 more
+     * Then: requests larger than any slot are served across slots and the
+     * last one is rejected with 409.
+     */
+    void reserve_spansSlotsAndRejectsWhenShort() {
+        inventoryService.addStock("Projector", 10);
+
+        inventoryService.reserve("Projector", 3);
+        inventoryService.reserve("Projector", 7);
+
+        assertEquals(new InventoryStock("Projector", 0, 8), inventoryService.getStock("Projector"));
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> inventoryService.reserve("Projector", 1));
+        assertEquals(409, ex.getStatusCode().value());
+
+        inventoryService.release("Projector", 2);
+        assertEquals(2, inventoryService.getStock("Projector").disponible());
+    }
+
+    @Test
+    /**
+     * Given: 100 chairs in stock
+     * When: 16 threads each try to reserve 1 chair 10 times
+     * Then: exactly 100 reservations succeed and the stock ends at zero.
+     */
+    void reserve_concurrentBookings_neverOversell() throws Exception {
+        inventoryService.addStock("Chair", 100);
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                tasks.add(() -> {
+                    int reserved = 0;
+                    for (int i = 0; i < 10; i++) {
+                        try {
+                            inventoryService.reserve("Chair", 1);
+                            reserved++;
+                        } catch (ResponseStatusException e) {
+                            // sold out
+                        }
+                    }
+                    return reserved;
+                });
+            }
+            int total = 0;
+            for (Future<Integer> result : pool.invokeAll(tasks)) {
+                total += result.get();
+            }
+            assertEquals(100, total);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(0, inventoryService.getStock("Chair").disponible());
+    }
+
+    @Test
+    /**
+     * Given: an item that has never been stocked
+     * When: 8 threads add 10 units of it at the same time
+     * Then: every call succeeds and the stock holds all 80 units in the
+     * configured number of slots.
+     */
+    void addStock_concurrentFirstStocking_countsEveryCall() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<InventoryStock>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(() -> inventoryService.addStock("Tent", 10));
+            }
+            for (Future<InventoryStock> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(new InventoryStock("Tent", 80, 8), inventoryService.getStock("Tent"));
+    }
+
+    @Test
+    /**
+     * Given: an item without stock
+     * When: reserving it
+     * Then: a 404 ResponseStatusException is thrown.
+     */
+    void reserve_unknownItem_throwsNotFound() {
+        assertFalse(inventoryService.isTracked("Stage"));
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> inventoryService.reserve("Stage", 1));
+        assertEquals(404, ex.getStatusCode().value());
+    }
+
+    @Test
+    /**
+     * Given: 5 screens in stock and an event
+     * When: addAffectLog reserves 2 of them in a transaction that then rolls
+     * back
+     * Then: the reservation was committed on its own while the transaction
+     * ran, and the stock is handed back once it has rolled back.
+     */
+    void reserve_commitsOnItsOwn_andIsReleasedWhenTheCallerRollsBack() {
+        inventoryService.addStock("Screen", 5);
+        Event event = new Event();
+        event.setDescription("Screening");
+        eventRepository.save(event);
+        EventServicesImpl eventServices = new EventServicesImpl(eventRepository, participantRepository,
+                logisticsRepository, new EventDescriptionIndex(eventRepository),
+                new ParticipantScheduleIndex(eventRepository, 100), inventoryService, change -> {
+                }, Mockito.mock(IEventArchiveService.class), new TopCostEventIndex(eventRepository, 10));
+        TransactionTemplate outside = new TransactionTemplate(transactionManager);
+        outside.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventServices.addAffectLog(new Logistics(0, "Screen", true, 40f, 2), "Screening");
+            InventoryStock committed = outside.execute(s -> inventoryService.getStock("Screen"));
+            assertEquals(3, committed.disponible());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(5, inventoryService.getStock("Screen").disponible());
+    }
+
+}
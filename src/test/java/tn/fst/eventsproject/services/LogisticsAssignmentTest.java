@@ -0,0 +1,122 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.fst.eventsproject.config.OptimisticRetryAspect;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.entities.Logistics;
+import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.LogisticsRepository;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link tn.fst.eventsproject.services.EventServicesImpl#addAffectLog} behind
+ * its transaction and {@link OptimisticRetryAspect} proxies, against the
+ * embedded H2 database.
+ */
+@DataJpaTest
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({ EventServicesImpl.class, OptimisticRetryAspect.class, EventDescriptionIndex.class,
+        ParticipantScheduleIndex.class, InventoryServiceImpl.class, TopCostEventIndex.class,
+        LogisticsAssignmentTest.ConcurrentAssignment.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LogisticsAssignmentTest {
+
+    @Autowired
+    IEventServices eventServices;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    LogisticsRepository logisticsRepository;
+
+    @Autowired
+    ConcurrentAssignment concurrentAssignment;
+
+    @MockBean
+    IEventArchiveService eventArchiveService;
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAll();
+        logisticsRepository.deleteAll();
+    }
+
+    @Test
+    /**
+     * Given: an event, and a second addAffectLog on it that commits while the
+     * first one is about to commit
+     * When: the first one loses on the event version and is retried
+     * Then: the retry saves its logistics again from scratch and both items
+     * end up linked, without a leftover row from the failed attempt.
+     */
+    void concurrentAssignments_sameEvent_bothSucceed() {
+        Event event = new Event();
+        event.setDescription("Gala");
+        event.setDateDebut(LocalDate.of(2025, 5, 10));
+        event.setDateFin(LocalDate.of(2025, 5, 12));
+        int idEvent = eventRepository.save(event).getIdEvent();
+        Logistics projector = new Logistics(0, "Projector", false, 75f, 1);
+        concurrentAssignment.arm();
+
+        Logistics saved = eventServices.addAffectLog(projector, "Gala");
+
+        assertTrue(concurrentAssignment.ran.get());
+        assertEquals(0, projector.getIdLog());
+        assertEquals(2, logisticsRepository.count());
+        assertEquals(2, eventRepository.findById(idEvent).orElseThrow().getLogistics().size());
+        assertTrue(logisticsRepository.existsById(saved.getIdLog()));
+    }
+
+    /**
+     * On the first LOGISTICS_ADDED it sees, still inside the caller's
+     * transaction, runs a second assignment to the same event from another
+     * thread and waits for it to commit.
+     */
+    @TestConfiguration
+    static class ConcurrentAssignment {
+
+        final AtomicBoolean armed = new AtomicBoolean();
+        final AtomicBoolean ran = new AtomicBoolean();
+        private final ObjectProvider<IEventServices> eventServices;
+
+        ConcurrentAssignment(ObjectProvider<IEventServices> eventServices) {
+            this.eventServices = eventServices;
+        }
+
+        void arm() {
+            armed.set(true);
+            ran.set(false);
+        }
+
+        @EventListener
+        public void on(EventChange change) throws Exception {
+            if (change.type() == EventChangeType.LOGISTICS_ADDED && armed.compareAndSet(true, false)) {
+                CompletableFuture.runAsync(() -> eventServices.getObject()
+                        .addAffectLog(new Logistics(0, "Speaker", false, 20f, 1), "Gala"))
+                        .get(10, TimeUnit.SECONDS);
+                ran.set(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.repositories.EventRepository;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Versioning of {@link tn.fst.eventsproject.entities.Event} against the
+ * embedded H2 schema; each repository call commits on its own, as for the
+ * service methods outside a transaction.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticLockingTest {
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    /**
+     * Given: two copies of the same event read at the same version
+     * When: both are modified and saved one after the other
+     * Then: the second save fails instead of overwriting the first.
+     */
+    void staleSave_isRejected() {
+        Event saved = eventRepository.save(event("Workshop"));
+        Event first = eventRepository.findById(saved.getIdEvent()).orElseThrow();
+        Event second = eventRepository.findById(saved.getIdEvent()).orElseThrow();
+
+        first.setDescription("Workshop A");
+        eventRepository.save(first);
+        second.setDescription("Workshop B");
+
+        assertThrows(OptimisticLockingFailureException.class, () -> eventRepository.save(second));
+        assertEquals("Workshop A", eventRepository.findById(saved.getIdEvent()).orElseThrow().getDescription());
+    }
+
+    @Test
+    /**
+     * Given: a transaction that loaded an event and changed its description
+     * When: calculCout's cout-only update commits before that transaction
+     * Then: the transaction still commits and both changes are kept.
+     */
+    void coutUpdate_doesNotConflictWithWriters() {
+        Event saved = eventRepository.save(event("Gala"));
+        TransactionTemplate writer = new TransactionTemplate(transactionManager);
+        TransactionTemplate scheduler = new TransactionTemplate(transactionManager);
+        scheduler.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        writer.executeWithoutResult(status -> {
+            Event event = eventRepository.findById(saved.getIdEvent()).orElseThrow();
+            event.setDescription("Gala night");
+            scheduler.executeWithoutResult(s -> eventRepository.updateCout(saved.getIdEvent(), 120f));
+        });
+
+        Event reloaded = eventRepository.findById(saved.getIdEvent()).orElseThrow();
+        assertEquals("Gala night", reloaded.getDescription());
+        assertEquals(120f, reloaded.getCout());
+    }
+
+    private static Event event(String description) {
+        Event event = new Event();
+        event.setDescription(description);
+        event.setDateDebut(LocalDate.of(2025, 5, 1));
+        event.setDateFin(LocalDate.of(2025, 5, 2));
+        return event;
+    }
+}
@@ -0,0 +1,152 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tn.fst.eventsproject.dto.ScheduledEvent;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
+import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.InventorySlotRepository;
+import tn.fst.eventsproject.repositories.LogisticsRepository;
+import tn.fst.eventsproject.repositories.ParticipantRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Linking participants to events through
+ * {@link tn.fst.eventsproject.services.EventServicesImpl} against the embedded
+ * H2 database, each call running in its own committed transaction as it does
+ * behind the service proxy.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ParticipantLinkingTest {
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    ParticipantRepository participantRepository;
+
+    @Autowired
+    LogisticsRepository logisticsRepository;
+
+    @Autowired
+    InventorySlotRepository inventorySlotRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    EventServicesImpl eventServices;
+
+    TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        eventServices = new EventServicesImpl(eventRepository, participantRepository, logisticsRepository,
+                new EventDescriptionIndex(eventRepository), new ParticipantScheduleIndex(eventRepository, 100),
+                new InventoryServiceImpl(inventorySlotRepository, 4), change -> {
+                }, Mockito.mock(IEventArchiveService.class), new TopCostEventIndex(eventRepository, 10));
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        participantRepository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    /**
+     * Given: a participant and two overlapping events linked concurrently
+     * with the conflict check
+     * When: both links run at the same time
+     * Then: exactly one succeeds, the other gets 409, and the participant
+     * ends up with a single event.
+     */
+    void concurrentOverlappingLinks_onlyOneSucceeds() throws Exception {
+        int idPart = participantRepository.save(new Participant(0, "Tounsi", "Ahmed", Tache.INVITE, null))
+                .getIdPart();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (String description : List.of("Gala", "Workshop")) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        transaction.executeWithoutResult(status -> eventServices.addAffectEvenParticipant(
+                                event(description), idPart, true));
+                        return 200;
+                    } catch (ResponseStatusException e) {
+                        return e.getStatusCode().value();
+                    }
+                }));
+            }
+            start.countDown();
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> result : results) {
+                statuses.add(result.get(10, TimeUnit.SECONDS));
+            }
+
+            assertTrue(statuses.containsAll(List.of(200, 409)), statuses.toString());
+            assertEquals(1, eventRepository.findScheduleByParticipant(idPart).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    /**
+     * Given: an existing event already updated once, so its version is above 0
+     * When: a participant is linked to it with a body that only carries its
+     * id, description and dates, as a client that does not send the version
+     * Then: the link succeeds, the description is applied, and the cost is
+     * kept.
+     */
+    void linkToExistingEvent_withoutVersion_succeeds() {
+        Event existing = eventRepository.save(event("Gala"));
+        existing.setCout(50f);
+        existing = eventRepository.save(existing);
+        assertTrue(existing.getVersion() > 0);
+        int idPart = participantRepository.save(new Participant(0, "Tounsi", "Ahmed", Tache.INVITE, null))
+                .getIdPart();
+        Event sent = event("Gala dinner");
+        sent.setIdEvent(existing.getIdEvent());
+
+        transaction.executeWithoutResult(status -> eventServices.addAffectEvenParticipant(sent, idPart));
+
+        assertEquals(List.of(existing.getIdEvent()), eventRepository.findScheduleByParticipant(idPart).stream()
+                .map(ScheduledEvent::idEvent).toList());
+        Event linked = eventRepository.findById(existing.getIdEvent()).orElseThrow();
+        assertEquals("Gala dinner", linked.getDescription());
+        assertEquals(50f, linked.getCout());
+    }
+
+    private static Event event(String description) {
+        Event event = new Event();
+        event.setDescription(description);
+        event.setDateDebut(LocalDate.of(2025, 5, 10));
+        event.setDateFin(LocalDate.of(2025, 5, 12));
+        return event;
+    }
+}
@@ -0,0 +1,151 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.fst.eventsproject.dto.ScheduledEvent;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.repositories.EventRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link tn.fst.eventsproject.services.ParticipantScheduleIndex}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ParticipantScheduleIndexTest {
+
+    @Mock
+    EventRepository eventRepository;
+
+    ParticipantScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ParticipantScheduleIndex(eventRepository, 100);
+    }
+
+    private static ScheduledEvent scheduled(int id, String debut, String fin) {
+        return new ScheduledEvent(id, "E" + id, LocalDate.parse(debut), LocalDate.parse(fin));
+    }
+
+    @Test
+    /**
+     * Given: a participant with a long event followed by short ones
+     * When: querying a range only the long event reaches
+     * Then: the long event is found through the running maximum of end dates
+     * and the schedule is loaded from the database only once.
+     */
+    void overlapping_findsLongIntervalsStartingEarlier() {
+        when(eventRepository.findScheduleByParticipant(1)).thenReturn(List.of(
+                scheduled(3, "2025-03-01", "2025-03-02"),
+                scheduled(1, "2025-01-01", "2025-12-31"),
+                scheduled(2, "2025-02-01", "2025-02-03")));
+
+        assertEquals(List.of(1, 3), ids(index.overlapping(1, LocalDate.parse("2025-03-02"),
+                LocalDate.parse("2025-04-01"))));
+        assertEquals(List.of(1, 2, 3), ids(index.overlapping(1, null, null)));
+        assertTrue(index.overlapping(1, LocalDate.parse("2026-01-01"), null).isEmpty());
+        verify(eventRepository, times(1)).findScheduleByParticipant(1);
+    }
+
+    @Test
+    /**
+     * Given: a cached schedule
+     * When: a new event is linked and conflicts are checked
+     * Then: overlaps are detected on both edges and free ranges are not.
+     */
+    void hasConflict_detectsOverlapsIncludingAddedEvents() {
+        when(eventRepository.findScheduleByParticipant(1)).thenReturn(new ArrayList<>(List.of(
+                scheduled(1, "2025-01-10", "2025-01-12"))));
+
+        assertTrue(index.hasConflict(1, LocalDate.parse("2025-01-12"), LocalDate.parse("2025-01-15")));
+        assertFalse(index.hasConflict(1, LocalDate.parse("2025-01-13"), LocalDate.parse("2025-01-15")));
+
+        Event added = new Event();
+        added.setIdEvent(2);
+        added.setDateDebut(LocalDate.parse("2025-01-14"));
+        added.setDateFin(LocalDate.parse("2025-01-14"));
+        index.add(1, added);
+
+        assertTrue(index.hasConflict(1, LocalDate.parse("2025-01-13"), LocalDate.parse("2025-01-15")));
+        assertFalse(index.hasConflict(1, null, null));
+    }
+
+    @Test
+    /**
+     * Given: a cached schedule with one event
+     * When: that event is added again with new dates, then checked against
+     * its own new range
+     * Then: the old dates no longer conflict, and the event does not conflict
+     * with itself while another event id does.
+     */
+    void add_changedDates_replaceEntryAndEventDoesNotConflictWithItself() {
+        when(eventRepository.findScheduleByParticipant(1)).thenReturn(new ArrayList<>(List.of(
+                scheduled(1, "2025-01-10", "2025-01-12"))));
+        assertTrue(index.hasConflict(1, LocalDate.parse("2025-01-10"), LocalDate.parse("2025-01-10")));
+
+        index.add(1, event(1, "2025-02-01", "2025-02-03"));
+
+        assertFalse(index.hasConflict(1, LocalDate.parse("2025-01-10"), LocalDate.parse("2025-01-12")));
+        assertEquals(List.of(1), ids(index.overlapping(1, null, null)));
+        assertFalse(index.hasConflict(1, LocalDate.parse("2025-02-02"), LocalDate.parse("2025-02-05"), 1));
+        assertTrue(index.hasConflict(1, LocalDate.parse("2025-02-02"), LocalDate.parse("2025-02-05"), 2));
+        verify(eventRepository, times(1)).findScheduleByParticipant(1);
+    }
+
+    @Test
+    /**
+     * Given: a cached schedule and two links made in transactions
+     * When: one rolls back and the other commits
+     * Then: only the committed link reaches the index, and while they are
+     * pending conflicts are checked against the database.
+     */
+    void addOnCommit_onlyCommittedLinksReachTheIndex() {
+        when(eventRepository.findScheduleByParticipant(1)).thenReturn(new ArrayList<>(List.of(
+                scheduled(1, "2025-01-10", "2025-01-12"))));
+        assertFalse(index.hasConflict(1, LocalDate.parse("2025-03-01"), LocalDate.parse("2025-04-30")));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.addOnCommit(1, event(2, "2025-03-01", "2025-03-02"));
+            index.addOnCommit(1, event(3, "2025-04-01", "2025-04-02"));
+            assertFalse(index.hasConflict(1, LocalDate.parse("2025-03-01"), LocalDate.parse("2025-04-30")));
+            verify(eventRepository, times(2)).findScheduleByParticipant(1);
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager
+                    .getSynchronizations();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(1, 3), ids(index.overlapping(1, null, null)));
+        verify(eventRepository, times(2)).findScheduleByParticipant(1);
+    }
+
+    private static Event event(int id, String debut, String fin) {
+        Event event = new Event();
+        event.setIdEvent(id);
+        event.setDateDebut(LocalDate.parse(debut));
+        event.setDateFin(LocalDate.parse(fin));
+        return event;
+    }
+
+    private static List<Integer> ids(List<ScheduledEvent> events) {
+        return events.stream().map(ScheduledEvent::idEvent).toList();
+    }
+
+}
@@ -0,0 +1,164 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tn.fst.eventsproject.dto.KeysetPage;
+import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
+import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.InventorySlotRepository;
+import tn.fst.eventsproject.repositories.LogisticsRepository;
+import tn.fst.eventsproject.repositories.ParticipantRepository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset pagination of
+ * {@link tn.fst.eventsproject.services.EventServicesImpl#searchParticipants}
+ * against the embedded H2 database.
+ */
+@DataJpaTest
+class ParticipantSearchTest {
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    ParticipantRepository participantRepository;
+
+    @Autowired
+    LogisticsRepository logisticsRepository;
+
+    @Autowired
+    InventorySlotRepository inventorySlotRepository;
+
+    @Autowired
+    DataSource dataSource;
+
+    EventServicesImpl eventServices;
+
+    @BeforeEach
+    void setUp() {
+        eventServices = new EventServicesImpl(eventRepository, participantRepository, logisticsRepository,
+                new EventDescriptionIndex(eventRepository), new ParticipantScheduleIndex(eventRepository, 100),
+                new InventoryServiceImpl(inventorySlotRepository, 4), change -> {
+                }, Mockito.mock(IEventArchiveService.class), new TopCostEventIndex(eventRepository, 10));
+        participantRepository.saveAll(List.of(
+                new Participant(0, "Tounsi", "Ahmed", Tache.ORGANISATEUR, null),
+                new Participant(0, "Tounsi", "Sami", Tache.INVITE, null),
+                new Participant(0, "Ben Ali", "Ahmed", Tache.ORGANISATEUR, null),
+                new Participant(0, "Tounsi", "Mona", Tache.ORGANISATEUR, null)));
+    }
+
+    @Test
+    /**
+     * Given: three participants named Tounsi
+     * When: they are fetched two per page
+     * Then: the first page carries a cursor leading to the last participant
+     * and the second page has no cursor.
+     */
+    void searchParticipants_pagesByIdWithCursor() {
+        KeysetPage<Participant> first = eventServices.searchParticipants("Tounsi", null, null, null, 2);
+
+        assertEquals(List.of("Ahmed", "Sami"), first.content().stream().map(Participant::getPrenom).toList());
+        assertNotNull(first.nextCursor());
+
+        KeysetPage<Participant> second = eventServices.searchParticipants("Tounsi", null, null,
+                Integer.valueOf(first.nextCursor()), 2);
+
+        assertEquals(List.of("Mona"), second.content().stream().map(Participant::getPrenom).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    /**
+     * Given: participants with various names and roles
+     * When: filtering on prenom and tache only
+     * Then: only participants matching both criteria are returned.
+     */
+    void searchParticipants_combinesFilters() {
+        KeysetPage<Participant> page = eventServices.searchParticipants(null, "Ahmed", Tache.ORGANISATEUR, null, 10);
+
+        assertEquals(List.of("Tounsi", "Ben Ali"), page.content().stream().map(Participant::getNom).toList());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    /**
+     * Given: participants sharing a prenom
+     * When: filtering on prenom only, one per page
+     * Then: the pages follow idPart across the different noms.
+     */
+    void searchParticipants_pagesOnPrenomOnly() {
+        KeysetPage<Participant> first = eventServices.searchParticipants(null, "Ahmed", null, null, 1);
+
+        assertEquals(List.of("Tounsi"), first.content().stream().map(Participant::getNom).toList());
+
+        KeysetPage<Participant> second = eventServices.searchParticipants(null, "Ahmed", null,
+                Integer.valueOf(first.nextCursor()), 1);
+
+        assertEquals(List.of("Ben Ali"), second.content().stream().map(Participant::getNom).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    /**
+     * Given: two participants named Tounsi Ahmed with different roles
+     * When: filtering on nom and prenom, one per page
+     * Then: both are returned in idPart order, whatever their tache.
+     */
+    void searchParticipants_pagesOnNomAndPrenom() {
+        participantRepository.save(new Participant(0, "Tounsi", "Ahmed", Tache.INVITE, null));
+
+        KeysetPage<Participant> first = eventServices.searchParticipants("Tounsi", "Ahmed", null, null, 1);
+
+        assertEquals(List.of(Tache.ORGANISATEUR), first.content().stream().map(Participant::getTache).toList());
+
+        KeysetPage<Participant> second = eventServices.searchParticipants("Tounsi", "Ahmed", null,
+                Integer.valueOf(first.nextCursor()), 1);
+
+        assertEquals(List.of(Tache.INVITE), second.content().stream().map(Participant::getTache).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    /**
+     * Given: the schema generated from the Participant mapping
+     * When: looking at its indexes
+     * Then: every combination of nom, prenom and tache is the leading
+     * columns of an index immediately followed by id_part.
+     */
+    void participantIndexes_coverEveryFilterCombination() {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        new JdbcTemplate(dataSource).query("select index_name, column_name from information_schema.index_columns"
+                + " where table_name = 'PARTICIPANT' order by index_name, ordinal_position",
+                rs -> {
+                    indexes.computeIfAbsent(rs.getString(1), k -> new ArrayList<>())
+                            .add(rs.getString(2).toLowerCase());
+                });
+        String[] columns = {"nom", "prenom", "tache"};
+        for (int mask = 1; mask < 1 << columns.length; mask++) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < columns.length; i++) {
+                if ((mask & 1 << i) != 0) {
+                    expected.add(columns[i]);
+                }
+            }
+            expected.add("id_part");
+            assertTrue(indexes.values().stream().anyMatch(index -> index.size() >= expected.size()
+                            && index.subList(0, expected.size()).equals(expected)),
+                    "no index starting with " + expected);
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package tn.fst.eventsproject.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+import tn.fst.eventsproject.dto.EventCost;
+import tn.fst.eventsproject.repositories.EventRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link tn.fst.eventsproject.services.TopCostEventIndex}
+ * with a capacity of 3 events.
+ */
+@ExtendWith(MockitoExtension.class)
+class TopCostEventIndexTest {
+
+    static final LocalDate NEXT_MONTH = LocalDate.now().plusMonths(1);
+
+    @Mock
+    EventRepository eventRepository;
+
+    TopCostEventIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TopCostEventIndex(eventRepository, 3);
+    }
+
+    private static EventCost cost(int id, float cout) {
+        return new EventCost(id, "E" + id, NEXT_MONTH, NEXT_MONTH, cout);
+    }
+
+    private static EventChange costUpdated(int id, float cout, LocalDate dateDebut) {
+        return new EventChange(EventChangeType.COST_UPDATED, id, "E" + id, dateDebut, dateDebut, cout, null, null,
+                Instant.now());
+    }
+
+    @Test
+    /**
+     * Given: two upcoming events in the database (fewer than the capacity)
+     * When: a new event is created and another one gets more expensive
+     * Then: the ranking follows the changes without querying the database
+     * again.
+     */
+    void onChange_updatesRankingInMemory() {
+        when(eventRepository.findTopByCost(any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(List.of(cost(1, 500f), cost(2, 300f)));
+        index.rebuild();
+
+        index.onChange(costUpdated(3, 400f, NEXT_MONTH));
+        index.onChange(costUpdated(2, 900f, NEXT_MONTH));
+
+        assertEquals(List.of(cost(2, 900f), cost(1, 500f), cost(3, 400f)), index.top(10));
+        assertEquals(List.of(cost(2, 900f)), index.top(1));
+        verify(eventRepository, times(1)).findTopByCost(any(LocalDate.class), any(Pageable.class));
+    }
+
+    @Test
+    /**
+     * Given: a full ranking (more upcoming events exist in the database)
+     * When: a tracked event becomes cheaper than all others and another one
+     * starts in the past
+     * Then: both leave the ranking and the next read reloads it from the
+     * database.
+     */
+    void top_reloadsWhenRankingRunsShort() {
+        when(eventRepository.findTopByCost(any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(List.of(cost(1, 500f), cost(2, 300f), cost(3, 200f)))
+                .thenReturn(List.of(cost(1, 500f), cost(4, 150f), cost(2, 10f)));
+        index.rebuild();
+
+        index.onChange(costUpdated(2, 10f, NEXT_MONTH));
+        index.onChange(costUpdated(3, 200f, LocalDate.now().minusDays(1)));
+        index.onChange(costUpdated(5, 50f, NEXT_MONTH));
+
+        assertEquals(List.of(cost(1, 500f), cost(4, 150f), cost(2, 10f)), index.top(3));
+        verify(eventRepository, times(2)).findTopByCost(any(LocalDate.class), any(Pageable.class));
+    }
+
+}
@@ -0,0 +1,246 @@
+package tn.fst.eventsproject.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.transaction.PlatformTransactionManager;
+import tn.fst.eventsproject.dto.CostBreakdown;
+import tn.fst.eventsproject.dto.EventChange;
+import tn.fst.eventsproject.dto.EventChangeType;
+import tn.fst.eventsproject.dto.ScheduledEvent;
+import tn.fst.eventsproject.entities.ArchivedEvent;
+import tn.fst.eventsproject.entities.Event;
+import tn.fst.eventsproject.entities.Logistics;
+import tn.fst.eventsproject.entities.Participant;
+import tn.fst.eventsproject.entities.Tache;
+import tn.fst.eventsproject.repositories.ArchivedEventRepository;
+import tn.fst.eventsproject.repositories.EventRepository;
+import tn.fst.eventsproject.repositories.LogisticsRepository;
+import tn.fst.eventsproject.repositories.ParticipantRepository;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests for {@link tn.fst.eventsproject.services.WarmStartSnapshot}: caches
+ * are filled from the embedded H2 schema, written to a temporary file and
+ * restored into fresh instances.
+ */
+@DataJpaTest
+class WarmStartSnapshotTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    LogisticsRepository logisticsRepository;
+
+    @Autowired
+    ParticipantRepository participantRepository;
+
+    @Autowired
+    ArchivedEventRepository archivedEventRepository;
+
+    @TempDir
+    Path tempDir;
+
+    Path file;
+    ChangeJournal journal;
+    Participant participant;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = tempDir.resolve("warm-start.bin");
+        journal = new ChangeJournal(tempDir.resolve("journal"), 1 << 16, 2, 50, new SimpleMeterRegistry());
+        Logistics projector = logisticsRepository.save(new Logistics(0, "Projector", true, 75f, 2));
+
+        Event workshop = new Event();
+        workshop.setDescription("Workshop, day 1");
+        workshop.setDateDebut(LocalDate.of(2025, 3, 1));
+        workshop.setDateFin(LocalDate.of(2025, 3, 2));
+        workshop.setLogistics(new HashSet<>(Set.of(projector)));
+        eventRepository.save(workshop);
+
+        Event gala = new Event();
+        gala.setDescription("Gala");
+        gala.setDateDebut(LocalDate.of(2025, 6, 1));
+        eventRepository.save(gala);
+
+        participant = participantRepository.saveAndFlush(new Participant(0, "Tounsi", "Ahmed", Tache.ORGANISATEUR,
+                new HashSet<>(Set.of(workshop, gala))));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    @Test
+    /**
+     * Given: filled caches written to the snapshot file
+     * When: it is restored into empty caches while the data is unchanged
+     * Then: every section is restored and the caches answer without the
+     * database.
+     */
+    void restore_unchangedData_restoresEveryCache() throws Exception {
+        EventDescriptionIndex descriptions = new EventDescriptionIndex(eventRepository);
+        descriptions.rebuild();
+        ParticipantScheduleIndex schedules = new ParticipantScheduleIndex(eventRepository, 100);
+        schedules.overlapping(participant.getIdPart(), null, null);
+        EventAnalyticsServiceImpl analytics = new EventAnalyticsServiceImpl(dataSource, transactionManager, 10, 16,
+                journal::getLastSequence);
+        analytics.refresh();
+        CostBreakdown before = analytics.getCostBreakdown(null, null);
+        new WarmStartSnapshot(dataSource, file.toString(), List.of(descriptions, schedules, analytics),
+                journal::getLastSequence).write();
+
+        EventRepository unused = mock(EventRepository.class);
+        EventDescriptionIndex restoredDescriptions = new EventDescriptionIndex(unused);
+        ParticipantScheduleIndex restoredSchedules = new ParticipantScheduleIndex(unused, 100);
+        EventAnalyticsServiceImpl restoredAnalytics = new EventAnalyticsServiceImpl(dataSource, transactionManager,
+                10, 16, journal::getLastSequence);
+        Set<String> restored = new WarmStartSnapshot(dataSource, file.toString(),
+                List.of(restoredDescriptions, restoredSchedules, restoredAnalytics), journal::getLastSequence)
+                .restore();
+
+        assertEquals(Set.of("event-descriptions", "participant-schedules", "cost-analytics"), restored);
+        assertEquals(descriptions.findFirstIdByDescription("Gala"),
+                restoredDescriptions.findFirstIdByDescription("Gala"));
+        assertEquals(2, restoredDescriptions.search("work", 10).size() + restoredDescriptions.search("gala", 10).size());
+        List<ScheduledEvent> schedule = restoredSchedules.overlapping(participant.getIdPart(), null, null);
+        assertEquals(List.of("Workshop, day 1", "Gala"), schedule.stream().map(ScheduledEvent::description).toList());
+        assertNull(schedule.get(1).dateFin());
+        CostBreakdown after = restoredAnalytics.getCostBreakdown(null, null);
+        assertEquals(before, after);
+        verifyNoInteractions(unused);
+    }
+
+    @Test
+    /**
+     * Given: a snapshot written before an event was added
+     * When: it is restored
+     * Then: no section is restored, since the data version changed.
+     */
+    void restore_changedData_discardsSnapshot() throws Exception {
+        EventDescriptionIndex descriptions = new EventDescriptionIndex(eventRepository);
+        descriptions.rebuild();
+        new WarmStartSnapshot(dataSource, file.toString(), List.of(descriptions), journal::getLastSequence).write();
+
+        Event concert = new Event();
+        concert.setDescription("Concert");
+        eventRepository.saveAndFlush(concert);
+
+        EventDescriptionIndex restoredDescriptions = new EventDescriptionIndex(eventRepository);
+        Set<String> restored = new WarmStartSnapshot(dataSource, file.toString(), List.of(restoredDescriptions),
+                journal::getLastSequence).restore();
+
+        assertTrue(restored.isEmpty());
+        assertEquals(0, restoredDescriptions.size());
+    }
+
+    @Test
+    /**
+     * Given: a snapshot written before the cost of an event was updated in
+     * place, which leaves its version column alone
+     * When: it is restored after the update was journaled
+     * Then: no section is restored, since the journal sequence moved on.
+     */
+    void restore_journaledCostUpdate_discardsSnapshot() throws Exception {
+        EventDescriptionIndex descriptions = new EventDescriptionIndex(eventRepository);
+        descriptions.rebuild();
+        new WarmStartSnapshot(dataSource, file.toString(), List.of(descriptions), journal::getLastSequence).write();
+
+        Event gala = eventRepository.findById(descriptions.findFirstIdByDescription("Gala").orElseThrow())
+                .orElseThrow();
+        eventRepository.updateCout(gala.getIdEvent(), 500f);
+        gala.setCout(500f);
+        journal.append(EventChange.of(EventChangeType.COST_UPDATED, gala, null, null));
+
+        Set<String> restored = new WarmStartSnapshot(dataSource, file.toString(),
+                List.of(new EventDescriptionIndex(eventRepository)), journal::getLastSequence).restore();
+
+        assertTrue(restored.isEmpty());
+    }
+
+    @Test
+    /**
+     * Given: a snapshot written before an event was added to the archive
+     * tables only
+     * When: it is restored
+     * Then: no section is restored, since the archive is part of the data
+     * version.
+     */
+    void restore_archiveChanged_discardsSnapshot() throws Exception {
+        EventDescriptionIndex descriptions = new EventDescriptionIndex(eventRepository);
+        descriptions.rebuild();
+        new WarmStartSnapshot(dataSource, file.toString(), List.of(descriptions), journal::getLastSequence).write();
+
+        archivedEventRepository.saveAndFlush(new ArchivedEvent(100_000, "Fair", LocalDate.of(2024, 9, 1),
+                LocalDate.of(2024, 9, 3), 300f, null, null));
+
+        Set<String> restored = new WarmStartSnapshot(dataSource, file.toString(),
+                List.of(new EventDescriptionIndex(eventRepository)), journal::getLastSequence).restore();
+
+        assertTrue(restored.isEmpty());
+    }
+
+    @Test
+    /**
+     * Given: a started snapshot lifecycle
+     * When: it is stopped
+     * Then: the snapshot is written, and its phase stops it only after the
+     * web server's graceful shutdown and stop phases.
+     */
+    void stop_writesSnapshotAfterWebServerStops() {
+        WarmStartSnapshot snapshot = new WarmStartSnapshot(dataSource, file.toString(),
+                List.of(new EventDescriptionIndex(eventRepository)), journal::getLastSequence);
+        snapshot.start();
+
+        snapshot.stop();
+
+        assertFalse(snapshot.isRunning());
+        assertTrue(Files.isRegularFile(file));
+        // lifecycles stop in decreasing phase order; the web server stops at SMART_LIFECYCLE_PHASE - 1024
+        assertTrue(snapshot.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    @Test
+    /**
+     * Given: a snapshot file that is not in the snapshot format, or none
+     * When: it is restored
+     * Then: nothing is restored and no exception escapes.
+     */
+    void restore_missingOrCorruptFile_restoresNothing() throws Exception {
+        EventDescriptionIndex descriptions = new EventDescriptionIndex(eventRepository);
+        WarmStartSnapshot snapshot = new WarmStartSnapshot(dataSource, file.toString(), List.of(descriptions),
+                journal::getLastSequence);
+
+        assertTrue(snapshot.restore().isEmpty());
+
+        Files.write(file, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+        assertTrue(snapshot.restore().isEmpty());
+        assertEquals(Optional.empty(), descriptions.findFirstIdByDescription("Gala"));
+    }
+}